@@ -0,0 +1,36 @@
+import java.util.*;
+
+public class BulkIngestReport {
+    private int accepted;
+    private final List<RejectedLine> rejected = new ArrayList<>();
+    private final Map<String, Integer> errorCounts = new LinkedHashMap<>();
+    private long elapsedNanos;
+
+    void accepted() { accepted++; }
+    void rejected(long lineNo, String raw, List<String> errors) {
+        rejected.add(new RejectedLine(lineNo, raw, errors));
+        for (String e : errors) errorCounts.merge(e, 1, Integer::sum);
+    }
+    void finish(long elapsedNanos) { this.elapsedNanos = elapsedNanos; }
+
+    public int acceptedCount() { return accepted; }
+    public List<RejectedLine> rejectedLines() { return Collections.unmodifiableList(rejected); }
+    // Validation message -> number of records that failed it, in first-seen order.
+    public Map<String, Integer> errorCounts() { return Collections.unmodifiableMap(errorCounts); }
+    public long elapsedNanos() { return elapsedNanos; }
+
+    public double recordsPerSecond() {
+        if (elapsedNanos == 0) return 0.0;
+        return (accepted + rejected.size()) * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    public static class RejectedLine {
+        public final long lineNo;
+        public final String raw;
+        public final List<String> errors;
+
+        public RejectedLine(long lineNo, String raw, List<String> errors) {
+            this.lineNo = lineNo; this.raw = raw; this.errors = errors;
+        }
+    }
+}
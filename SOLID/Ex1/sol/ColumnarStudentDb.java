@@ -0,0 +1,224 @@
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+// Compact, column-per-field StudentDb (single writer, like FakeDb).
+// - ids of the form SST-2026-NNNN are kept as their int sequence
+// - program is dictionary-encoded into one byte per row
+// - all-digit phones (up to 18 digits) are kept as a long plus digit count
+// - the email domain (from the last '@') is dictionary-encoded too
+// - name and email local part sit back to back in one shared UTF-8 byte
+//   arena: one int offset plus two 16-bit lengths per row
+// Rows are read through a reusable Row cursor; all() materializes a
+// StudentRecord only for the element actually fetched.
+public class ColumnarStudentDb implements StudentDb {
+    private static final String ID_PREFIX = "SST-2026-";
+    private static final int IN_ARENA = -1;
+
+    private int size;
+    private int[] idSeq = new int[16];
+    private int[] textOff = new int[16];
+    private char[] nameLen = new char[16];
+    private char[] emailLocalLen = new char[16];
+    private byte[] emailDomain = new byte[16];
+    private long[] phone = new long[16];
+    private byte[] phoneDigits = new byte[16];
+    private byte[] programCode = new byte[16];
+
+    // Fallback slots (arena offset/length) for ids and phones that do not pack.
+    private final Map<Integer, long[]> irregular = new HashMap<>();
+
+    private final Dictionary programs = new Dictionary();
+    private final Dictionary domains = new Dictionary();
+
+    private byte[] arena = new byte[1024];
+    private int arenaSize;
+
+    @Override
+    public int nextSequence() { return size + 1; }
+
+    @Override
+    public void save(StudentRecord r) {
+        ensureCapacity(size + 1);
+        int i = size;
+
+        int seq = packedSequence(r.id);
+        idSeq[i] = seq;
+        if (seq == IN_ARENA) irregular.computeIfAbsent(i, k -> new long[4])[0] = putArena(r.id);
+
+        int at = r.email.lastIndexOf('@');
+        byte domain = at < 0 ? IN_ARENA : domains.codeOf(r.email.substring(at));
+        String local = domain == IN_ARENA ? r.email : r.email.substring(0, at);
+        long name = putArena(r.name);
+        long email = putArena(local);
+        textOff[i] = (int) (name >>> 32);
+        nameLen[i] = length16(name);
+        emailLocalLen[i] = length16(email);
+        emailDomain[i] = domain;
+
+        if (isPackablePhone(r.phone)) {
+            phone[i] = Long.parseLong(r.phone);
+            phoneDigits[i] = (byte) r.phone.length();
+        } else {
+            phoneDigits[i] = IN_ARENA;
+            irregular.computeIfAbsent(i, k -> new long[4])[1] = putArena(r.phone);
+        }
+
+        byte program = programs.codeOf(r.program);
+        if (program == IN_ARENA) throw new IllegalStateException("too many distinct programs");
+        programCode[i] = program;
+        size++;
+    }
+
+    // Drops growth slack once a bulk load is done.
+    public void trimToSize() {
+        resize(size);
+        arena = Arrays.copyOf(arena, arenaSize);
+    }
+
+    @Override
+    public int count() { return size; }
+
+    @Override
+    public List<StudentRecord> all() {
+        int n = size;
+        return new AbstractList<>() {
+            @Override
+            public StudentRecord get(int i) {
+                Objects.checkIndex(i, n);
+                return row(i).toRecord();
+            }
+
+            @Override
+            public int size() { return n; }
+        };
+    }
+
+    public Row row(int i) {
+        Row r = new Row();
+        r.moveTo(i);
+        return r;
+    }
+
+    public class Row {
+        private int i;
+
+        public Row moveTo(int index) {
+            Objects.checkIndex(index, size);
+            this.i = index;
+            return this;
+        }
+
+        public int index() { return i; }
+
+        public String id() {
+            if (idSeq[i] != IN_ARENA) return formatId(idSeq[i]);
+            return getArena(irregular.get(i)[0]);
+        }
+
+        public String name() { return new String(arena, textOff[i], nameLen[i], StandardCharsets.UTF_8); }
+
+        public String email() {
+            String local = new String(arena, textOff[i] + nameLen[i], emailLocalLen[i], StandardCharsets.UTF_8);
+            return emailDomain[i] == IN_ARENA ? local : local + domains.valueOf(emailDomain[i]);
+        }
+
+        public String phone() {
+            if (phoneDigits[i] == IN_ARENA) return getArena(irregular.get(i)[1]);
+            String digits = Long.toString(phone[i]);
+            int zeros = phoneDigits[i] - digits.length();
+            return zeros == 0 ? digits : "0".repeat(zeros) + digits;
+        }
+
+        // Dictionary lookup only; no allocation.
+        public String program() { return programs.valueOf(programCode[i]); }
+
+        public StudentRecord toRecord() { return new StudentRecord(id(), name(), email(), phone(), program()); }
+    }
+
+    private static int packedSequence(String id) {
+        if (!id.startsWith(ID_PREFIX)) return IN_ARENA;
+        int digits = id.length() - ID_PREFIX.length();
+        if (digits < 4 || digits > 9) return IN_ARENA;
+        int seq = 0;
+        for (int k = ID_PREFIX.length(); k < id.length(); k++) {
+            char c = id.charAt(k);
+            if (c < '0' || c > '9') return IN_ARENA;
+            seq = seq * 10 + (c - '0');
+        }
+        // Only pack ids that round-trip through formatId.
+        return formatId(seq).equals(id) ? seq : IN_ARENA;
+    }
+
+    private static String formatId(int seq) {
+        String num = Integer.toString(seq);
+        if (num.length() >= 4) return ID_PREFIX + num;
+        return ID_PREFIX + "0".repeat(4 - num.length()) + num;
+    }
+
+    private static boolean isPackablePhone(String p) {
+        if (p.isEmpty() || p.length() > 18) return false;
+        for (int k = 0; k < p.length(); k++) {
+            char c = p.charAt(k);
+            if (c < '0' || c > '9') return false;
+        }
+        return true;
+    }
+
+    private static char length16(long ref) {
+        int len = (int) ref;
+        if (len > Character.MAX_VALUE) throw new IllegalArgumentException("field too long: " + len + " bytes");
+        return (char) len;
+    }
+
+    // Returns (offset << 32) | length.
+    private long putArena(String s) {
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        if (arenaSize + b.length > arena.length) {
+            long grown = Math.max(arena.length + (arena.length >> 1), (long) arenaSize + b.length);
+            if (grown > Integer.MAX_VALUE - 8) throw new IllegalStateException("string arena is full");
+            arena = Arrays.copyOf(arena, (int) grown);
+        }
+        System.arraycopy(b, 0, arena, arenaSize, b.length);
+        long ref = ((long) arenaSize << 32) | b.length;
+        arenaSize += b.length;
+        return ref;
+    }
+
+    private String getArena(long ref) {
+        return new String(arena, (int) (ref >>> 32), (int) ref, StandardCharsets.UTF_8);
+    }
+
+    private void ensureCapacity(int n) {
+        if (n <= idSeq.length) return;
+        resize(Math.max(n, idSeq.length + (idSeq.length >> 1)));
+    }
+
+    private void resize(int cap) {
+        idSeq = Arrays.copyOf(idSeq, cap);
+        textOff = Arrays.copyOf(textOff, cap);
+        nameLen = Arrays.copyOf(nameLen, cap);
+        emailLocalLen = Arrays.copyOf(emailLocalLen, cap);
+        emailDomain = Arrays.copyOf(emailDomain, cap);
+        phone = Arrays.copyOf(phone, cap);
+        phoneDigits = Arrays.copyOf(phoneDigits, cap);
+        programCode = Arrays.copyOf(programCode, cap);
+    }
+
+    // Small value <-> byte code table; codeOf returns IN_ARENA once full.
+    private static class Dictionary {
+        private final List<String> values = new ArrayList<>();
+        private final Map<String, Byte> codes = new HashMap<>();
+
+        byte codeOf(String value) {
+            Byte code = codes.get(value);
+            if (code != null) return code;
+            if (values.size() == Byte.MAX_VALUE) return IN_ARENA;
+            byte next = (byte) values.size();
+            values.add(value);
+            codes.put(value, next);
+            return next;
+        }
+
+        String valueOf(byte code) { return values.get(code); }
+    }
+}
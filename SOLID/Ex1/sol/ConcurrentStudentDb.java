@@ -0,0 +1,67 @@
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Thread-safe StudentDb: lock-free appends into fixed-size chunks.
+// `committed` only ever covers a fully written prefix, so all() can hand out
+// a read-only view of that prefix without copying or blocking writers.
+public class ConcurrentStudentDb implements StudentDb {
+    private static final int CHUNK_BITS = 12;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int MAX_CHUNKS = 1 << 14;
+
+    private final AtomicReferenceArray<AtomicReferenceArray<StudentRecord>> chunks = new AtomicReferenceArray<>(MAX_CHUNKS);
+    private final AtomicInteger sequence = new AtomicInteger();
+    private final AtomicInteger reserved = new AtomicInteger();
+    private final AtomicInteger committed = new AtomicInteger();
+
+    @Override
+    public int nextSequence() { return sequence.incrementAndGet(); }
+
+    @Override
+    public void save(StudentRecord r) {
+        int slot = reserved.getAndIncrement();
+        if (slot >>> CHUNK_BITS >= MAX_CHUNKS) throw new IllegalStateException("StudentDb is full");
+        chunkFor(slot).set(slot & (CHUNK_SIZE - 1), r);
+        advanceCommitted();
+    }
+
+    @Override
+    public int count() { return committed.get(); }
+
+    @Override
+    public List<StudentRecord> all() {
+        int size = committed.get();
+        return new AbstractList<>() {
+            @Override
+            public StudentRecord get(int i) {
+                Objects.checkIndex(i, size);
+                return chunks.get(i >>> CHUNK_BITS).get(i & (CHUNK_SIZE - 1));
+            }
+
+            @Override
+            public int size() { return size; }
+        };
+    }
+
+    private AtomicReferenceArray<StudentRecord> chunkFor(int slot) {
+        int idx = slot >>> CHUNK_BITS;
+        AtomicReferenceArray<StudentRecord> chunk = chunks.get(idx);
+        if (chunk == null) {
+            chunks.compareAndSet(idx, null, new AtomicReferenceArray<>(CHUNK_SIZE));
+            chunk = chunks.get(idx);
+        }
+        return chunk;
+    }
+
+    // Any writer may push the prefix forward past slots finished by others.
+    private void advanceCommitted() {
+        while (true) {
+            int c = committed.get();
+            if (c >= reserved.get()) return;
+            AtomicReferenceArray<StudentRecord> chunk = chunks.get(c >>> CHUNK_BITS);
+            if (chunk == null || chunk.get(c & (CHUNK_SIZE - 1)) == null) return;
+            committed.compareAndSet(c, c + 1);
+        }
+    }
+}
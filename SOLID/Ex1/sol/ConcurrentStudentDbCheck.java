@@ -0,0 +1,76 @@
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Stress check for ConcurrentStudentDb: many writers register students
+// through one OnboardingService at once (every tenth line is invalid and
+// must be rejected), then verifies ids are unique, count() matches the
+// accepted records and all() has no holes.
+// Run: java ConcurrentStudentDbCheck [threads] [recordsPerThread]
+public class ConcurrentStudentDbCheck {
+    public static void main(String[] args) throws InterruptedException {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 48;
+        int perThread = args.length > 1 ? Integer.parseInt(args[1]) : 5_000;
+        check(threads >= 32, "use at least 32 writer threads");
+
+        ConcurrentStudentDb db = new ConcurrentStudentDb();
+        OnboardingService service = new OnboardingService(db);
+        AtomicInteger accepted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> writers = new ArrayList<>();
+        List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+        for (int t = 0; t < threads; t++) {
+            byte[] input = lines(t, perThread).getBytes(StandardCharsets.UTF_8);
+            Thread w = new Thread(() -> {
+                try {
+                    start.await();
+                    accepted.addAndGet(service.registerAll(Channels.newChannel(new ByteArrayInputStream(input))).acceptedCount());
+                } catch (IOException e) {
+                    failures.add(new UncheckedIOException(e));
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            }, "writer-" + t);
+            writers.add(w);
+            w.start();
+        }
+        start.countDown();
+        for (Thread w : writers) w.join();
+        check(failures.isEmpty(), "writer failed: " + (failures.isEmpty() ? "" : failures.get(0)));
+
+        int expected = threads * (perThread - perThread / 10);
+        check(accepted.get() == expected, "accepted " + accepted.get() + " != " + expected);
+        check(db.count() == accepted.get(), "count() " + db.count() + " != accepted " + accepted.get());
+        List<StudentRecord> all = db.all();
+        check(all.size() == db.count(), "all().size() " + all.size() + " != count() " + db.count());
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < all.size(); i++) {
+            StudentRecord r = all.get(i);
+            check(r != null, "null entry at " + i);
+            check(ids.add(r.id), "duplicate id " + r.id);
+        }
+        System.out.println("OK: " + threads + " writers, " + all.size() + " students, ids unique");
+    }
+
+    // Line i of writer t; every tenth has no '@' in the email.
+    private static String lines(int t, int n) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < n; i++) {
+            String email = i % 10 == 9 ? "w" + t + "s" + i + ".sst.edu" : "w" + t + "s" + i + "@sst.edu";
+            sb.append("name=Writer ").append(t).append(" Student ").append(i)
+              .append(";email=").append(email)
+              .append(";phone=9").append(t * 1_000_000L + i)
+              .append(";program=SWE\n");
+        }
+        return sb.toString();
+    }
+
+    private static void check(boolean ok, String msg) {
+        if (!ok) throw new IllegalStateException(msg);
+    }
+}
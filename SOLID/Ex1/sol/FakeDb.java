@@ -1,6 +1,8 @@
 public class FakeDb implements StudentDb {
     private final java.util.List<StudentRecord> rows = new java.util.ArrayList<>();
 
+    @Override
+    public int nextSequence() { return rows.size() + 1; }
     @Override
     public void save(StudentRecord r) { rows.add(r); }
     @Override
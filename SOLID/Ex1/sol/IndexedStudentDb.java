@@ -0,0 +1,108 @@
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// StudentDb decorator that maintains hash indexes on email and phone plus a
+// per-program index, so duplicate checks are O(1) and cohort queries cost
+// O(result) instead of a scan over all().
+public class IndexedStudentDb implements StudentDb {
+    private final StudentDb delegate;
+    private final Map<String, StudentRecord> byEmail = new ConcurrentHashMap<>();
+    private final Map<String, StudentRecord> byPhone = new ConcurrentHashMap<>();
+    private final Map<String, List<StudentRecord>> byProgram = new ConcurrentHashMap<>();
+    private final AtomicInteger maxIdLength = new AtomicInteger();
+    private final AtomicInteger maxNameLength = new AtomicInteger();
+    private final AtomicInteger maxProgramLength = new AtomicInteger();
+
+    public IndexedStudentDb(StudentDb delegate) {
+        this.delegate = delegate;
+        for (StudentRecord r : delegate.all()) index(r);
+    }
+
+    @Override
+    public int nextSequence() { return delegate.nextSequence(); }
+
+    // The validator rejects duplicates up front; this re-check keeps the
+    // indexes unique when two registrations race past validation, and throws
+    // IllegalArgumentException for the loser. If the delegate fails, the
+    // entries are taken out again (the max-length stats stay upper bounds).
+    @Override
+    public void save(StudentRecord r) {
+        index(r);
+        try {
+            delegate.save(r);
+        } catch (RuntimeException | Error e) {
+            unindex(r);
+            throw e;
+        }
+    }
+
+    @Override
+    public int count() { return delegate.count(); }
+
+    @Override
+    public List<StudentRecord> all() { return delegate.all(); }
+
+    public boolean hasEmail(String email) { return byEmail.containsKey(emailKey(email)); }
+
+    public boolean hasPhone(String phone) { return byPhone.containsKey(phone); }
+
+    public StudentRecord findByEmail(String email) { return byEmail.get(emailKey(email)); }
+
+    public StudentRecord findByPhone(String phone) { return byPhone.get(phone); }
+
+    public List<StudentRecord> byProgram(String program) {
+        List<StudentRecord> rows = byProgram.get(program);
+        if (rows == null) return List.of();
+        synchronized (rows) {
+            return List.copyOf(rows);
+        }
+    }
+
+    public int countByProgram(String program) {
+        List<StudentRecord> rows = byProgram.get(program);
+        if (rows == null) return 0;
+        synchronized (rows) {
+            return rows.size();
+        }
+    }
+
+    // Column statistics, e.g. for sizing TextTable columns without a scan.
+    public int maxIdLength() { return maxIdLength.get(); }
+
+    public int maxNameLength() { return maxNameLength.get(); }
+
+    public int maxProgramLength() { return maxProgramLength.get(); }
+
+    private void index(StudentRecord r) {
+        String email = emailKey(r.email);
+        if (byEmail.putIfAbsent(email, r) != null)
+            throw new IllegalArgumentException("email already registered: " + r.email);
+        if (byPhone.putIfAbsent(r.phone, r) != null) {
+            byEmail.remove(email, r);
+            throw new IllegalArgumentException("phone already registered: " + r.phone);
+        }
+        List<StudentRecord> rows = byProgram.computeIfAbsent(r.program, k -> new ArrayList<>());
+        synchronized (rows) {
+            rows.add(r);
+        }
+        maxIdLength.accumulateAndGet(r.id.length(), Math::max);
+        maxNameLength.accumulateAndGet(r.name.length(), Math::max);
+        maxProgramLength.accumulateAndGet(r.program.length(), Math::max);
+    }
+
+    private void unindex(StudentRecord r) {
+        byEmail.remove(emailKey(r.email), r);
+        byPhone.remove(r.phone, r);
+        List<StudentRecord> rows = byProgram.get(r.program);
+        if (rows != null) {
+            synchronized (rows) {
+                rows.remove(r);
+            }
+        }
+    }
+
+    private static String emailKey(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,263 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+// File-backed StudentDb.
+// Records are appended to rolling segment files; appends are buffered and
+// fsync'd together once `groupCommitSize` records are pending (or on sync()).
+// Every `snapshotEvery` records the whole table is written to a snapshot that
+// remembers the log position it covers, and older segments are dropped.
+// Startup maps the snapshot and replays only the log tail after that position.
+public class LogStructuredStudentDb implements StudentDb, Closeable {
+    private static final int SNAPSHOT_MAGIC = 0x53535431;
+    private static final int MAX_FIELD_BYTES = 0xFFFF;
+
+    private final Path dir;
+    private final int groupCommitSize;
+    private final long segmentBytes;
+    private final int snapshotEvery;
+
+    private final ArrayList<StudentRecord> rows = new ArrayList<>();
+    private final ByteBuffer pending = ByteBuffer.allocate(512 * 1024);
+    private int pendingRecords;
+    private int sequence;
+    private int rowsAtLastSnapshot;
+
+    private int segmentId;
+    private long segmentPos;
+    private FileChannel segment;
+
+    public LogStructuredStudentDb(Path dir) throws IOException {
+        this(dir, 256, 64L * 1024 * 1024, 100_000);
+    }
+
+    public LogStructuredStudentDb(Path dir, int groupCommitSize, long segmentBytes, int snapshotEvery) throws IOException {
+        this.dir = dir;
+        this.groupCommitSize = groupCommitSize;
+        this.segmentBytes = segmentBytes;
+        this.snapshotEvery = snapshotEvery;
+        Files.createDirectories(dir);
+        recover();
+        this.sequence = recoveredSequence();
+        this.rowsAtLastSnapshot = rows.size();
+    }
+
+    @Override
+    public synchronized int nextSequence() { return ++sequence; }
+
+    @Override
+    public synchronized void save(StudentRecord r) {
+        try {
+            append(r);
+            rows.add(r);
+            if (++pendingRecords >= groupCommitSize) commit();
+            if (rows.size() - rowsAtLastSnapshot >= snapshotEvery) snapshot();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public synchronized int count() { return rows.size(); }
+
+    @Override
+    public synchronized List<StudentRecord> all() { return Collections.unmodifiableList(new ArrayList<>(rows)); }
+
+    // Makes every saved record durable.
+    public synchronized void sync() throws IOException { commit(); }
+
+    public synchronized void snapshot() throws IOException {
+        commit();
+        Path tmp = dir.resolve("snapshot.tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buf = ByteBuffer.allocate(1024 * 1024);
+            buf.putInt(SNAPSHOT_MAGIC).putInt(segmentId).putLong(segmentPos).putInt(rows.size());
+            for (StudentRecord r : rows) {
+                if (buf.remaining() < maxFrameSize()) drain(ch, buf);
+                encode(buf, r);
+            }
+            drain(ch, buf);
+            ch.force(true);
+        }
+        Files.move(tmp, dir.resolve("snapshot.dat"), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        rowsAtLastSnapshot = rows.size();
+        for (int id : segmentIds()) {
+            if (id < segmentId) Files.deleteIfExists(segmentPath(id));
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        commit();
+        segment.close();
+    }
+
+    private void append(StudentRecord r) throws IOException {
+        if (pending.remaining() < maxFrameSize()) commit();
+        int start = pending.position();
+        try {
+            encode(pending, r);
+        } catch (RuntimeException e) {
+            // Drop the half-written frame so it never reaches the log.
+            pending.position(start);
+            throw e;
+        }
+        long frame = pending.position() - start;
+        if (segmentPos > 0 && segmentPos + frame > segmentBytes) {
+            // Roll before this frame: flush what precedes it into the old segment.
+            pending.position(start);
+            byte[] carry = new byte[(int) frame];
+            ByteBuffer tail = pending.duplicate();
+            tail.limit(start + carry.length);
+            tail.get(carry);
+            commit();
+            segment.close();
+            openSegment(segmentId + 1, 0);
+            pending.put(carry);
+        }
+        segmentPos += frame;
+    }
+
+    private void commit() throws IOException {
+        if (pending.position() == 0) return;
+        pending.flip();
+        while (pending.hasRemaining()) segment.write(pending);
+        pending.clear();
+        segment.force(false);
+        pendingRecords = 0;
+    }
+
+    private void recover() throws IOException {
+        int fromSegment = 1;
+        long fromPos = 0;
+        Path snap = dir.resolve("snapshot.dat");
+        if (Files.exists(snap)) {
+            try (FileChannel ch = FileChannel.open(snap, StandardOpenOption.READ)) {
+                MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+                if (buf.getInt() != SNAPSHOT_MAGIC) throw new IOException("corrupt snapshot: " + snap);
+                fromSegment = buf.getInt();
+                fromPos = buf.getLong();
+                int n = buf.getInt();
+                rows.ensureCapacity(n);
+                byte[] scratch = new byte[MAX_FIELD_BYTES];
+                for (int i = 0; i < n; i++) {
+                    buf.position(buf.position() + 4);
+                    rows.add(decode(buf, scratch));
+                }
+            }
+        }
+        int last = fromSegment;
+        long lastEnd = fromPos;
+        for (int id : segmentIds()) {
+            if (id < fromSegment) continue;
+            last = id;
+            lastEnd = replay(segmentPath(id), id == fromSegment ? fromPos : 0);
+        }
+        openSegment(last, lastEnd);
+    }
+
+    // Returns the end of the last complete frame; a torn tail is cut off.
+    private long replay(Path file, long from) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = ch.size();
+            if (from >= size) return from;
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, from, size - from);
+            byte[] scratch = new byte[MAX_FIELD_BYTES];
+            int good = 0;
+            while (buf.remaining() >= 4) {
+                int len = buf.getInt(buf.position());
+                if (len <= 0 || buf.remaining() - 4 < len) break;
+                buf.position(buf.position() + 4);
+                rows.add(decode(buf, scratch));
+                good = buf.position();
+            }
+            if (from + good < size) ch.truncate(from + good);
+            return from + good;
+        }
+    }
+
+    // Reserved sequence numbers are not logged and a rejected save leaves a
+    // gap, so the row count can lag the last id handed out. Restart above
+    // the largest sequence an id carries (SST-2026-NNNN) so none is reused.
+    private int recoveredSequence() {
+        int max = rows.size();
+        for (StudentRecord r : rows) max = Math.max(max, idSequence(r.id));
+        return max;
+    }
+
+    // Trailing digits of the id; 0 when there are none.
+    private static int idSequence(String id) {
+        int i = id.length();
+        while (i > 0 && Character.isDigit(id.charAt(i - 1))) i--;
+        if (i == id.length() || id.length() - i > 9) return 0;
+        return Integer.parseInt(id, i, id.length(), 10);
+    }
+
+    private void openSegment(int id, long pos) throws IOException {
+        segment = FileChannel.open(segmentPath(id), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        segment.position(pos);
+        segmentId = id;
+        segmentPos = pos;
+    }
+
+    private Path segmentPath(int id) {
+        return dir.resolve(String.format("segment-%06d.log", id));
+    }
+
+    private int[] segmentIds() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "segment-*.log")) {
+            List<Integer> ids = new ArrayList<>();
+            for (Path p : files) {
+                String name = p.getFileName().toString();
+                ids.add(Integer.parseInt(name.substring("segment-".length(), name.length() - ".log".length())));
+            }
+            return ids.stream().mapToInt(Integer::intValue).sorted().toArray();
+        }
+    }
+
+    private static void drain(FileChannel ch, ByteBuffer buf) throws IOException {
+        buf.flip();
+        while (buf.hasRemaining()) ch.write(buf);
+        buf.clear();
+    }
+
+    // Frame: [int payloadLen] then id, name, email, phone, program as [u16 len][utf-8].
+    private static void encode(ByteBuffer buf, StudentRecord r) {
+        int lenAt = buf.position();
+        buf.putInt(0);
+        putString(buf, r.id);
+        putString(buf, r.name);
+        putString(buf, r.email);
+        putString(buf, r.phone);
+        putString(buf, r.program);
+        buf.putInt(lenAt, buf.position() - lenAt - 4);
+    }
+
+    private static StudentRecord decode(ByteBuffer buf, byte[] scratch) {
+        return new StudentRecord(getString(buf, scratch), getString(buf, scratch), getString(buf, scratch),
+                getString(buf, scratch), getString(buf, scratch));
+    }
+
+    private static void putString(ByteBuffer buf, String s) {
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        if (b.length > MAX_FIELD_BYTES) throw new IllegalArgumentException("field too long: " + b.length + " bytes");
+        buf.putShort((short) b.length);
+        buf.put(b);
+    }
+
+    private static String getString(ByteBuffer buf, byte[] scratch) {
+        int len = buf.getShort() & 0xFFFF;
+        buf.get(scratch, 0, len);
+        return new String(scratch, 0, len, StandardCharsets.UTF_8);
+    }
+
+    private static int maxFrameSize() {
+        return 4 + 5 * (2 + MAX_FIELD_BYTES);
+    }
+}
@@ -0,0 +1,110 @@
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Batch onboarding in three stages:
+//   reader thread -> worker pool (parse + field validation) -> caller thread
+// The reader hands futures to the committer through a bounded queue in input
+// order, so at most `window` records are in flight, and the committer runs
+// the uniqueness checks, ID assignment and saves strictly in that order.
+class OnboardingPipeline {
+    private static final Future<Parsed> END = CompletableFuture.completedFuture(null);
+
+    private final StudentDb db;
+    private final StudentInputParser parser;
+    private final StudentValidator validator;
+    private final IdGenerator idGenerator;
+    private final int workers;
+    private final int window;
+
+    OnboardingPipeline(StudentDb db, StudentInputParser parser, StudentValidator validator, IdGenerator idGenerator, int workers) {
+        this.db = db;
+        this.parser = parser;
+        this.validator = validator;
+        this.idGenerator = idGenerator;
+        this.workers = workers;
+        this.window = workers * 256;
+    }
+
+    BulkIngestReport run(Iterable<String> raws) {
+        BulkIngestReport report = new BulkIngestReport();
+        long start = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        BlockingQueue<Future<Parsed>> inFlight = new ArrayBlockingQueue<>(window);
+        AtomicReference<Throwable> readFailure = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            try {
+                long lineNo = 0;
+                for (String raw : raws) {
+                    long n = ++lineNo;
+                    inFlight.put(pool.submit(() -> parse(n, raw)));
+                }
+            } catch (InterruptedException e) {
+                // The committer has gone away; nobody is waiting for END.
+                return;
+            } catch (Throwable t) {
+                readFailure.set(t);
+            }
+            try {
+                inFlight.put(END);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "onboarding-reader");
+        reader.setDaemon(true);
+        reader.start();
+        try {
+            for (Future<Parsed> f = inFlight.take(); f != END; f = inFlight.take()) {
+                commit(f.get(), report);
+            }
+            reader.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("batch onboarding interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("batch onboarding failed", e.getCause());
+        } finally {
+            // Unblocks a reader parked on a full queue if commit() threw.
+            reader.interrupt();
+            pool.shutdownNow();
+        }
+        if (readFailure.get() != null) {
+            throw new IllegalStateException("batch onboarding failed reading input after " + (report.acceptedCount() + report.rejectedLines().size()) + " records", readFailure.get());
+        }
+        report.finish(System.nanoTime() - start);
+        return report;
+    }
+
+    private Parsed parse(long lineNo, String raw) {
+        StudentInput input = parser.parse(raw);
+        return new Parsed(lineNo, raw, input, validator.validateFields(input));
+    }
+
+    private void commit(Parsed p, BulkIngestReport report) {
+        validator.addUniquenessErrors(p.input, p.errors);
+        if (!p.errors.isEmpty()) {
+            report.rejected(p.lineNo, p.raw, p.errors);
+            return;
+        }
+        String id = idGenerator.studentId(db.nextSequence());
+        try {
+            db.save(new StudentRecord(id, p.input.name, p.input.email, p.input.phone, p.input.program));
+        } catch (IllegalArgumentException e) {
+            // Store-side rejection, e.g. a duplicate that raced past validation.
+            report.rejected(p.lineNo, p.raw, List.of(e.getMessage()));
+            return;
+        }
+        report.accepted();
+    }
+
+    private static class Parsed {
+        final long lineNo;
+        final String raw;
+        final StudentInput input;
+        final List<String> errors;
+
+        Parsed(long lineNo, String raw, StudentInput input, List<String> errors) {
+            this.lineNo = lineNo; this.raw = raw; this.input = input; this.errors = errors;
+        }
+    }
+}
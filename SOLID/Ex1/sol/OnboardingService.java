@@ -1,3 +1,8 @@
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
 
 public class OnboardingService {
@@ -8,9 +13,13 @@ public class OnboardingService {
     private final StudentPrinter printer;
 
     public OnboardingService(StudentDb db) {
+        this(db, new StudentValidator());
+    }
+
+    public OnboardingService(StudentDb db, StudentValidator validator) {
         this.db = db;
         this.parser = new StudentInputParser();
-        this.validator = new StudentValidator();
+        this.validator = validator;
         this.idGenerator = new IdGenerator();
         this.printer = new StudentPrinter();
     }
@@ -23,11 +32,54 @@ public class OnboardingService {
             printer.printErrors(errors);
             return;
         }
-        String id = idGenerator.nextStudentId(db.count());
+        String id = idGenerator.studentId(db.nextSequence());
         StudentRecord rec = new StudentRecord(id, input.name, input.email, input.phone, input.program);
-        db.save(rec);
+        try {
+            db.save(rec);
+        } catch (IllegalArgumentException e) {
+            // Store-side rejection, e.g. a duplicate that raced past validation.
+            printer.printErrors(List.of(e.getMessage()));
+            return;
+        }
         printer.printSuccess(rec, db.count());
     }
+
+    public BulkIngestReport registerAll(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            return registerAll(ch);
+        }
+    }
+
+    // Bulk mode: newline-delimited raw records, no per-record console output.
+    public BulkIngestReport registerAll(ReadableByteChannel in) throws IOException {
+        BulkIngestReport report = new BulkIngestReport();
+        long start = System.nanoTime();
+        StudentBatchReader.readLines(in, (buf, from, to, lineNo) -> {
+            StudentInput input = parser.parse(buf, from, to);
+            List<String> errors = validator.validate(input);
+            if (!errors.isEmpty()) {
+                report.rejected(lineNo, new String(buf, from, to - from), errors);
+                return;
+            }
+            String id = idGenerator.studentId(db.nextSequence());
+            try {
+                db.save(new StudentRecord(id, input.name, input.email, input.phone, input.program));
+            } catch (IllegalArgumentException e) {
+                report.rejected(lineNo, new String(buf, from, to - from), List.of(e.getMessage()));
+                return;
+            }
+            report.accepted();
+        });
+        report.finish(System.nanoTime() - start);
+        return report;
+    }
+
+    // Parses and validates on `workers` threads; IDs and saves stay in input order.
+    public BulkIngestReport registerBatch(Iterable<String> raws, int workers, boolean printSummary) {
+        BulkIngestReport report = new OnboardingPipeline(db, parser, validator, idGenerator, workers).run(raws);
+        if (printSummary) printer.printBatchSummary(report);
+        return report;
+    }
 }
 
 // --- SRP Components ---
@@ -41,23 +93,73 @@ class StudentInput {
 
 class StudentInputParser {
     public StudentInput parse(String raw) {
-        Map<String,String> kv = new java.util.LinkedHashMap<>();
-        String[] parts = raw.split(";");
-        for (String p : parts) {
-            String[] t = p.split("=", 2);
-            if (t.length == 2) kv.put(t[0].trim(), t[1].trim());
+        char[] buf = raw.toCharArray();
+        return parse(buf, 0, buf.length);
+    }
+
+    // Scans `key=value;` fields in place; only the four values are materialized.
+    public StudentInput parse(char[] buf, int from, int to) {
+        String name = "", email = "", phone = "", program = "";
+        int fieldStart = from;
+        while (fieldStart < to) {
+            int fieldEnd = indexOf(buf, ';', fieldStart, to);
+            int eq = indexOf(buf, '=', fieldStart, fieldEnd);
+            if (eq < fieldEnd) {
+                int ks = trimStart(buf, fieldStart, eq), ke = trimEnd(buf, ks, eq);
+                int vs = trimStart(buf, eq + 1, fieldEnd), ve = trimEnd(buf, vs, fieldEnd);
+                if (keyEquals(buf, ks, ke, "name")) name = new String(buf, vs, ve - vs);
+                else if (keyEquals(buf, ks, ke, "email")) email = new String(buf, vs, ve - vs);
+                else if (keyEquals(buf, ks, ke, "phone")) phone = new String(buf, vs, ve - vs);
+                else if (keyEquals(buf, ks, ke, "program")) program = new String(buf, vs, ve - vs);
+            }
+            fieldStart = fieldEnd + 1;
         }
-        return new StudentInput(
-            kv.getOrDefault("name", ""),
-            kv.getOrDefault("email", ""),
-            kv.getOrDefault("phone", ""),
-            kv.getOrDefault("program", "")
-        );
+        return new StudentInput(name, email, phone, program);
+    }
+
+    private static int indexOf(char[] buf, char c, int from, int to) {
+        for (int i = from; i < to; i++) if (buf[i] == c) return i;
+        return to;
+    }
+
+    // Same whitespace rule as String.trim().
+    private static int trimStart(char[] buf, int from, int to) {
+        while (from < to && buf[from] <= ' ') from++;
+        return from;
+    }
+
+    private static int trimEnd(char[] buf, int from, int to) {
+        while (to > from && buf[to - 1] <= ' ') to--;
+        return to;
+    }
+
+    private static boolean keyEquals(char[] buf, int from, int to, String key) {
+        if (to - from != key.length()) return false;
+        for (int i = 0; i < key.length(); i++) if (buf[from + i] != key.charAt(i)) return false;
+        return true;
     }
 }
 
 class StudentValidator {
+    private final IndexedStudentDb index;
+
+    public StudentValidator() {
+        this(null);
+    }
+
+    // With an index, duplicate email/phone are rejected via O(1) lookups.
+    public StudentValidator(IndexedStudentDb index) {
+        this.index = index;
+    }
+
     public java.util.List<String> validate(StudentInput input) {
+        java.util.List<String> errors = validateFields(input);
+        addUniquenessErrors(input, errors);
+        return errors;
+    }
+
+    // Stateless per-record checks; safe to run in parallel.
+    public java.util.List<String> validateFields(StudentInput input) {
         java.util.List<String> errors = new java.util.ArrayList<>();
         if (input.name.isBlank()) errors.add("name is required");
         if (input.email.isBlank() || !input.email.contains("@")) errors.add("email is invalid");
@@ -66,9 +168,18 @@ class StudentValidator {
             errors.add("program is invalid");
         return errors;
     }
+
+    // Depends on what is already saved, so must run in save order.
+    public void addUniquenessErrors(StudentInput input, java.util.List<String> errors) {
+        if (index == null) return;
+        if (index.hasEmail(input.email)) errors.add("email already registered");
+        if (index.hasPhone(input.phone)) errors.add("phone already registered");
+    }
 }
 
 interface StudentDb {
+    // Reserves the sequence number for the next student ID.
+    int nextSequence();
     void save(StudentRecord r);
     int count();
     java.util.List<StudentRecord> all();
@@ -76,8 +187,11 @@ interface StudentDb {
 
 class IdGenerator {
     public String nextStudentId(int currentCount) {
-        int next = currentCount + 1;
-        String num = String.format("%04d", next);
+        return studentId(currentCount + 1);
+    }
+
+    public String studentId(int sequence) {
+        String num = String.format("%04d", sequence);
         return "SST-2026-" + num;
     }
 }
@@ -96,4 +210,13 @@ class StudentPrinter {
         System.out.println("CONFIRMATION:");
         System.out.println(rec);
     }
+    public void printBatchSummary(BulkIngestReport report) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("BATCH: accepted=").append(report.acceptedCount())
+          .append(" rejected=").append(report.rejectedLines().size())
+          .append(String.format(" (%.0f records/sec)", report.recordsPerSecond())).append('\n');
+        for (Map.Entry<String, Integer> e : report.errorCounts().entrySet())
+            sb.append("- ").append(e.getKey()).append(": ").append(e.getValue()).append('\n');
+        System.out.print(sb);
+    }
 }
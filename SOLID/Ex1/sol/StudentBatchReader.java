@@ -0,0 +1,45 @@
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// Splits a channel into lines over one reusable char buffer; no String per line.
+public class StudentBatchReader {
+    private static final int CHUNK = 64 * 1024;
+
+    public interface LineSink {
+        void accept(char[] buf, int from, int to, long lineNo);
+    }
+
+    public static void readLines(ReadableByteChannel in, LineSink sink) throws IOException {
+        Reader reader = Channels.newReader(in, StandardCharsets.UTF_8);
+        char[] buf = new char[CHUNK];
+        int start = 0, end = 0;
+        long lineNo = 0;
+        while (true) {
+            if (end == buf.length) {
+                if (start == 0) {
+                    buf = Arrays.copyOf(buf, buf.length * 2);
+                } else {
+                    System.arraycopy(buf, start, buf, 0, end - start);
+                    end -= start;
+                    start = 0;
+                }
+            }
+            int n = reader.read(buf, end, buf.length - end);
+            if (n < 0) break;
+            int scan = end;
+            end += n;
+            for (int i = scan; i < end; i++) {
+                if (buf[i] != '\n') continue;
+                int lineEnd = (i > start && buf[i - 1] == '\r') ? i - 1 : i;
+                lineNo++;
+                if (lineEnd > start) sink.accept(buf, start, lineEnd, lineNo);
+                start = i + 1;
+            }
+        }
+        if (end > start) sink.accept(buf, start, end, lineNo + 1);
+    }
+}
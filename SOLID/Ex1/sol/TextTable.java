@@ -1,3 +1,10 @@
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
 public class TextTable {
     public static String render3(StudentDb db) {
         StringBuilder sb = new StringBuilder();
@@ -7,4 +14,95 @@ public class TextTable {
         }
         return sb.toString();
     }
+
+    // Streams rows [offset, offset + limit) straight to `out`, padding by hand.
+    public static int renderPage(StudentDb db, Writer out, int offset, int limit, ColumnWidths widths) throws IOException {
+        List<StudentRecord> rows = db.all();
+        int from = Math.min(offset, rows.size());
+        int to = (int) Math.min(rows.size(), (long) from + limit);
+        RowWriter w = new RowWriter(out, widths);
+        w.row("ID", "NAME", "PROGRAM");
+        for (int i = from; i < to; i++) {
+            StudentRecord r = rows.get(i);
+            w.row(r.id, r.name, r.program);
+        }
+        out.flush();
+        return to - from;
+    }
+
+    public static int renderPage(StudentDb db, WritableByteChannel out, int offset, int limit, ColumnWidths widths) throws IOException {
+        return renderPage(db, Channels.newWriter(out, StandardCharsets.UTF_8), offset, limit, widths);
+    }
+
+    public static class ColumnWidths {
+        public final int id, name, program;
+
+        public ColumnWidths(int id, int name, int program) {
+            this.id = Math.max(id, "ID".length());
+            this.name = Math.max(name, "NAME".length());
+            this.program = Math.max(program, "PROGRAM".length());
+        }
+
+        // O(1): taken from the index's running maxima.
+        public static ColumnWidths of(IndexedStudentDb index) {
+            return new ColumnWidths(index.maxIdLength(), index.maxNameLength(), index.maxProgramLength());
+        }
+
+        // O(page): for stores without statistics.
+        public static ColumnWidths scan(StudentDb db, int offset, int limit) {
+            List<StudentRecord> rows = db.all();
+            int to = (int) Math.min(rows.size(), (long) offset + limit);
+            int id = 0, name = 0, program = 0;
+            for (int i = offset; i < to; i++) {
+                StudentRecord r = rows.get(i);
+                id = Math.max(id, r.id.length());
+                name = Math.max(name, r.name.length());
+                program = Math.max(program, r.program.length());
+            }
+            return new ColumnWidths(id, name, program);
+        }
+    }
+
+    private static class RowWriter {
+        private final Writer out;
+        private final int[] widths;
+        private char[] line;
+        private int len;
+
+        RowWriter(Writer out, ColumnWidths w) {
+            this.out = out;
+            this.widths = new int[] { w.id, w.name, w.program };
+            this.line = new char[w.id + w.name + w.program + 16];
+        }
+
+        void row(String id, String name, String program) throws IOException {
+            len = 0;
+            put('|');
+            cell(id, widths[0]);
+            cell(name, widths[1]);
+            cell(program, widths[2]);
+            put('\n');
+            out.write(line, 0, len);
+        }
+
+        private void cell(String v, int width) {
+            int n = Math.max(width, v.length());
+            ensure(n + 3);
+            line[len++] = ' ';
+            v.getChars(0, v.length(), line, len);
+            Arrays.fill(line, len + v.length(), len + n, ' ');
+            len += n;
+            line[len++] = ' ';
+            line[len++] = '|';
+        }
+
+        private void put(char c) {
+            ensure(1);
+            line[len++] = c;
+        }
+
+        private void ensure(int extra) {
+            if (len + extra > line.length) line = Arrays.copyOf(line, Math.max(line.length * 2, len + extra));
+        }
+    }
 }
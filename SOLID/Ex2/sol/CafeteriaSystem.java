@@ -1,52 +1,235 @@
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class CafeteriaSystem {
-    private final Map<String, MenuItem> menu = new LinkedHashMap<>();
+    // Copy-on-write: checkouts read a published snapshot and never take a lock.
+    private volatile Map<String, MenuItem> menu = Map.of();
     private final InvoiceStore store;
     private final TaxPolicy taxPolicy;
     private final DiscountPolicy discountPolicy;
     private final InvoiceRenderer renderer;
-    private int invoiceSeq = 1000;
+    private final CompiledPricingPolicy pricing;
+    private final AtomicInteger invoiceSeq = new AtomicInteger(1000);
+    private final List<CheckoutListener> listeners = new CopyOnWriteArrayList<>();
+    private static final ThreadLocal<CheckoutWork> WORK = ThreadLocal.withInitial(CheckoutWork::new);
+    private static final int BATCH_WINDOW = 1024;
+    private static final int STORE_GROUP = 256;
 
     public CafeteriaSystem() {
-        this(new InMemoryInvoiceStore(), new DefaultTaxPolicy(), new DefaultDiscountPolicy(), new DefaultInvoiceRenderer());
+        this(new InMemoryInvoiceStore(), new DefaultTaxPolicy(), new DefaultDiscountPolicy(), new DirectInvoiceRenderer());
     }
 
     public CafeteriaSystem(InvoiceStore store, TaxPolicy taxPolicy, DiscountPolicy discountPolicy, InvoiceRenderer renderer) {
+        this(store, taxPolicy, discountPolicy, renderer, null);
+    }
+
+    // Each checkout pins one version of the (hot-reloadable) pricing table.
+    public CafeteriaSystem(InvoiceStore store, CompiledPricingPolicy pricing, InvoiceRenderer renderer) {
+        this(store, null, null, renderer, pricing);
+    }
+
+    private CafeteriaSystem(InvoiceStore store, TaxPolicy taxPolicy, DiscountPolicy discountPolicy, InvoiceRenderer renderer,
+                            CompiledPricingPolicy pricing) {
         this.store = store;
         this.taxPolicy = taxPolicy;
         this.discountPolicy = discountPolicy;
         this.renderer = renderer;
+        this.pricing = pricing;
     }
 
-    public void addToMenu(MenuItem i) { menu.put(i.id, i); }
+    public void addCheckoutListener(CheckoutListener l) { listeners.add(l); }
 
+    public synchronized void addToMenu(MenuItem i) {
+        Map<String, MenuItem> next = new LinkedHashMap<>(menu);
+        next.put(i.id, i);
+        menu = Collections.unmodifiableMap(next);
+    }
+
+    // Safe to call from many tills at once when the store is thread-safe
+    // (e.g. ConcurrentInvoiceStore).
     public void checkout(String customerType, List<OrderLine> lines) {
-        String invId = "INV-" + (++invoiceSeq);
-        List<InvoiceLine> invoiceLines = new ArrayList<>();
+        CheckoutWork w = WORK.get();
+        price(w, customerType, lines);
+        render(w);
+        store.save(w.invoiceId, w.out.duplicate().flip(), w.lineCount);
+        notifyListeners(w);
+        // One locked write per checkout so concurrent tills do not interleave.
+        synchronized (System.out) {
+            System.out.write(w.out.array(), 0, w.out.position());
+            System.out.print("Saved invoice: " + w.invoiceId + " (lines=" + w.lineCount + ")" + System.lineSeparator());
+        }
+    }
+
+    // Bulk checkout without per-invoice console output. Pricing and rendering
+    // run on their own threads; the caller thread stores invoices in groups.
+    // Stages hand over pooled CheckoutWork slots through bounded queues, so
+    // at most BATCH_WINDOW orders are in flight. Invoice numbers follow input order.
+    public CheckoutBatchReport checkoutAll(List<Order> orders, boolean printSummary) {
+        long start = System.nanoTime();
+        BlockingQueue<CheckoutWork> free = new ArrayBlockingQueue<>(BATCH_WINDOW);
+        BlockingQueue<CheckoutWork> toRender = new ArrayBlockingQueue<>(BATCH_WINDOW + 1);
+        BlockingQueue<CheckoutWork> toStore = new ArrayBlockingQueue<>(BATCH_WINDOW + 1);
+        for (int i = 0; i < BATCH_WINDOW; i++) free.add(new CheckoutWork());
+        List<Throwable> failures = new CopyOnWriteArrayList<>();
+
+        Thread pricer = new Thread(() -> {
+            try {
+                for (Order o : orders) {
+                    CheckoutWork w = free.take();
+                    price(w, o.customerType, o.lines);
+                    toRender.put(w);
+                }
+            } catch (Throwable t) {
+                failures.add(t);
+            } finally {
+                toRender.add(CheckoutWork.END);
+            }
+        }, "checkout-pricing");
+        Thread renderStage = new Thread(() -> {
+            try {
+                for (CheckoutWork w = toRender.take(); w != CheckoutWork.END; w = toRender.take()) {
+                    render(w);
+                    toStore.put(w);
+                }
+            } catch (Throwable t) {
+                failures.add(t);
+            } finally {
+                toStore.add(CheckoutWork.END);
+            }
+        }, "checkout-render");
+        pricer.start();
+        renderStage.start();
+
+        long count = 0, totalPaise = 0;
+        String[] names = new String[STORE_GROUP];
+        ByteBuffer[] contents = new ByteBuffer[STORE_GROUP];
+        int[] lineCounts = new int[STORE_GROUP];
+        List<CheckoutWork> group = new ArrayList<>(STORE_GROUP);
+        try {
+            boolean done = false;
+            while (!done) {
+                group.clear();
+                group.add(toStore.take());
+                toStore.drainTo(group, STORE_GROUP - 1);
+                int n = 0;
+                for (CheckoutWork w : group) {
+                    if (w == CheckoutWork.END) {
+                        done = true;
+                        break;
+                    }
+                    names[n] = w.invoiceId;
+                    contents[n] = w.out.duplicate().flip();
+                    lineCounts[n] = w.lineCount;
+                    n++;
+                }
+                if (n > 0) store.saveAll(names, contents, lineCounts, n);
+                for (int i = 0; i < n; i++) {
+                    CheckoutWork w = group.get(i);
+                    notifyListeners(w);
+                    totalPaise += w.bill.totalPaise;
+                    free.add(w);
+                }
+                count += n;
+            }
+            pricer.join();
+            renderStage.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pricer.interrupt();
+            renderStage.interrupt();
+            throw new IllegalStateException("batch checkout interrupted", e);
+        } catch (RuntimeException e) {
+            pricer.interrupt();
+            renderStage.interrupt();
+            throw e;
+        }
+        if (!failures.isEmpty()) throw new IllegalStateException("batch checkout failed after " + count + " orders", failures.get(0));
+
+        CheckoutBatchReport report = new CheckoutBatchReport(count, totalPaise, System.nanoTime() - start);
+        if (printSummary) System.out.println(report);
+        return report;
+    }
+
+    private void price(CheckoutWork w, String customerType, List<OrderLine> lines) {
+        w.invoiceId = "INV-" + invoiceSeq.incrementAndGet();
+        w.customerType = customerType;
+        Map<String, MenuItem> menu = this.menu;
+        InvoiceBuffer bill = w.bill.reset();
         for (OrderLine l : lines) {
             MenuItem item = menu.get(l.itemId);
-            invoiceLines.add(new InvoiceLine(item.name, l.qty, item.price * l.qty));
+            bill.add(item.name, l.qty, item.pricePaise() * l.qty);
         }
 
-        BillSummary summary = BillCalculator.calculate(customerType, invoiceLines, taxPolicy, discountPolicy);
-        String printable = renderer.render(invId, invoiceLines, summary);
-        System.out.print(printable);
+        if (pricing != null) {
+            PricingTable version = pricing.current();
+            BillCalculator.calculate(version, version.ordinalOf(customerType), bill);
+        } else {
+            BillCalculator.calculate(customerType, bill, taxPolicy, discountPolicy);
+        }
+    }
 
-        store.save(invId, printable);
-        System.out.println("Saved invoice: " + invId + " (lines=" + store.countLines(invId) + ")");
+    private void render(CheckoutWork w) {
+        while (true) {
+            w.out.clear();
+            try {
+                w.lineCount = renderer.renderTo(w.invoiceId, w.bill, w.out);
+                return;
+            } catch (BufferOverflowException e) {
+                w.out = ByteBuffer.allocate(w.out.capacity() * 2);
+            }
+        }
     }
+
+    private void notifyListeners(CheckoutWork w) {
+        if (listeners.isEmpty()) return;
+        long now = System.currentTimeMillis();
+        for (CheckoutListener l : listeners) l.onCheckout(w.invoiceId, w.customerType, w.bill, now);
+    }
+}
+
+// Per-order working state, reused across checkouts.
+class CheckoutWork {
+    static final CheckoutWork END = new CheckoutWork();
+
+    String invoiceId;
+    String customerType;
+    final InvoiceBuffer bill = new InvoiceBuffer();
+    ByteBuffer out = ByteBuffer.allocate(4096);
+    int lineCount;
 }
 
 class InvoiceLine {
     public final String itemName;
     public final int qty;
     public final double lineTotal;
+    public final long lineTotalPaise;
 
     public InvoiceLine(String itemName, int qty, double lineTotal) {
+        this(itemName, qty, lineTotal, Paise.of(lineTotal));
+    }
+
+    private InvoiceLine(String itemName, int qty, double lineTotal, long lineTotalPaise) {
         this.itemName = itemName;
         this.qty = qty;
         this.lineTotal = lineTotal;
+        this.lineTotalPaise = lineTotalPaise;
+    }
+
+    public static InvoiceLine ofPaise(String itemName, int qty, long lineTotalPaise) {
+        return new InvoiceLine(itemName, qty, Paise.toRupees(lineTotalPaise), lineTotalPaise);
+    }
+
+    static List<InvoiceLine> linesOf(InvoiceBuffer bill) {
+        List<InvoiceLine> lines = new ArrayList<>(bill.size);
+        for (int i = 0; i < bill.size; i++) lines.add(ofPaise(bill.itemNames[i], bill.qty[i], bill.lineTotalPaise[i]));
+        return lines;
     }
 }
 
@@ -56,26 +239,73 @@ class BillSummary {
     public final double tax;
     public final double discount;
     public final double total;
+    public final long subtotalPaise, taxPaise, discountPaise, totalPaise;
 
     public BillSummary(double subtotal, double taxPercent, double tax, double discount, double total) {
+        this(subtotal, taxPercent, tax, discount, total,
+             Paise.of(subtotal), Paise.of(tax), Paise.of(discount), Paise.of(total));
+    }
+
+    private BillSummary(double subtotal, double taxPercent, double tax, double discount, double total,
+                        long subtotalPaise, long taxPaise, long discountPaise, long totalPaise) {
         this.subtotal = subtotal;
         this.taxPercent = taxPercent;
         this.tax = tax;
         this.discount = discount;
         this.total = total;
+        this.subtotalPaise = subtotalPaise;
+        this.taxPaise = taxPaise;
+        this.discountPaise = discountPaise;
+        this.totalPaise = totalPaise;
+    }
+
+    public static BillSummary ofPaise(long subtotalPaise, double taxPercent, long taxPaise, long discountPaise, long totalPaise) {
+        return new BillSummary(Paise.toRupees(subtotalPaise), taxPercent, Paise.toRupees(taxPaise),
+                               Paise.toRupees(discountPaise), Paise.toRupees(totalPaise),
+                               subtotalPaise, taxPaise, discountPaise, totalPaise);
+    }
+
+    static BillSummary of(InvoiceBuffer bill) {
+        return ofPaise(bill.subtotalPaise, bill.taxPercent, bill.taxPaise, bill.discountPaise, bill.totalPaise);
     }
 }
 
 class BillCalculator {
     public static BillSummary calculate(String customerType, List<InvoiceLine> lines, TaxPolicy taxPolicy, DiscountPolicy discountPolicy) {
-        double subtotal = 0.0;
-        for (InvoiceLine line : lines) subtotal += line.lineTotal;
+        InvoiceBuffer bill = new InvoiceBuffer();
+        for (InvoiceLine line : lines) bill.add(line.itemName, line.qty, line.lineTotalPaise);
+        calculate(customerType, bill, taxPolicy, discountPolicy);
+        return BillSummary.of(bill);
+    }
+
+    // Exact to the paisa: tax is rounded half up once, nothing else is rounded.
+    public static void calculate(String customerType, InvoiceBuffer bill, TaxPolicy taxPolicy, DiscountPolicy discountPolicy) {
+        long subtotal = 0;
+        for (int i = 0; i < bill.size; i++) subtotal += bill.lineTotalPaise[i];
 
         double taxPercent = taxPolicy.taxPercent(customerType);
-        double tax = subtotal * (taxPercent / 100.0);
-        double discount = discountPolicy.discountAmount(customerType, subtotal, lines.size());
-        double total = subtotal + tax - discount;
-        return new BillSummary(subtotal, taxPercent, tax, discount, total);
+        long tax = Paise.percentOf(subtotal, taxPercent);
+        long discount = discountPolicy.discountPaise(customerType, subtotal, bill.size);
+        bill.taxPercent = taxPercent;
+        bill.subtotalPaise = subtotal;
+        bill.taxPaise = tax;
+        bill.discountPaise = discount;
+        bill.totalPaise = subtotal + tax - discount;
+    }
+
+    // Same as above against one pinned table version, customer type resolved once.
+    public static void calculate(PricingTable pricing, int customerOrdinal, InvoiceBuffer bill) {
+        long subtotal = 0;
+        for (int i = 0; i < bill.size; i++) subtotal += bill.lineTotalPaise[i];
+
+        double taxPercent = pricing.taxPercent(customerOrdinal);
+        long tax = Paise.percentOf(subtotal, taxPercent);
+        long discount = pricing.discountPaise(customerOrdinal, subtotal, bill.size);
+        bill.taxPercent = taxPercent;
+        bill.subtotalPaise = subtotal;
+        bill.taxPaise = tax;
+        bill.discountPaise = discount;
+        bill.totalPaise = subtotal + tax - discount;
     }
 }
 
@@ -85,15 +315,41 @@ interface TaxPolicy {
 
 interface DiscountPolicy {
     double discountAmount(String customerType, double subtotal, int distinctLines);
+
+    default long discountPaise(String customerType, long subtotalPaise, int distinctLines) {
+        return Paise.of(discountAmount(customerType, Paise.toRupees(subtotalPaise), distinctLines));
+    }
 }
 
 interface InvoiceRenderer {
     String render(String invoiceId, List<InvoiceLine> lines, BillSummary summary);
+
+    default String render(String invoiceId, InvoiceBuffer bill) {
+        return render(invoiceId, InvoiceLine.linesOf(bill), BillSummary.of(bill));
+    }
+
+    // Writes the invoice as UTF-8 into `out` and returns its line count.
+    default int renderTo(String invoiceId, InvoiceBuffer bill, ByteBuffer out) {
+        String text = render(invoiceId, bill);
+        out.put(text.getBytes(StandardCharsets.UTF_8));
+        if (text.isEmpty()) return 0;
+        return text.split("\n").length;
+    }
 }
 
 interface InvoiceStore {
     void save(String name, String content);
     int countLines(String name);
+
+    // Rendered bytes (UTF-8) plus the line count the renderer already knows.
+    default void save(String name, ByteBuffer content, int lineCount) {
+        save(name, StandardCharsets.UTF_8.decode(content).toString());
+    }
+
+    // Coalesced write of the first `count` entries; stores may batch the I/O.
+    default void saveAll(String[] names, ByteBuffer[] contents, int[] lineCounts, int count) {
+        for (int i = 0; i < count; i++) save(names[i], contents[i], lineCounts[i]);
+    }
 }
 
 class DefaultTaxPolicy implements TaxPolicy {
@@ -115,15 +371,34 @@ class DefaultInvoiceRenderer implements InvoiceRenderer {
     public String render(String invoiceId, List<InvoiceLine> lines, BillSummary summary) {
         StringBuilder out = new StringBuilder();
         out.append("Invoice# ").append(invoiceId).append("\n");
-        for (InvoiceLine line : lines) {
-            out.append(String.format("- %s x%d = %.2f\n", line.itemName, line.qty, line.lineTotal));
-        }
-        out.append(String.format("Subtotal: %.2f\n", summary.subtotal));
-        out.append(String.format("Tax(%.0f%%): %.2f\n", summary.taxPercent, summary.tax));
-        out.append(String.format("Discount: -%.2f\n", summary.discount));
-        out.append(String.format("TOTAL: %.2f\n", summary.total));
+        for (InvoiceLine line : lines) line(out, line.itemName, line.qty, line.lineTotalPaise);
+        summary(out, summary.subtotalPaise, summary.taxPercent, summary.taxPaise, summary.discountPaise, summary.totalPaise);
         return InvoiceFormatter.identityFormat(out.toString());
     }
+
+    @Override
+    public String render(String invoiceId, InvoiceBuffer bill) {
+        StringBuilder out = new StringBuilder(64 + bill.size * 32);
+        out.append("Invoice# ").append(invoiceId).append("\n");
+        for (int i = 0; i < bill.size; i++) line(out, bill.itemNames[i], bill.qty[i], bill.lineTotalPaise[i]);
+        summary(out, bill.subtotalPaise, bill.taxPercent, bill.taxPaise, bill.discountPaise, bill.totalPaise);
+        return InvoiceFormatter.identityFormat(out.toString());
+    }
+
+    private static void line(StringBuilder out, String itemName, int qty, long totalPaise) {
+        out.append("- ").append(itemName).append(" x").append(qty).append(" = ");
+        Paise.appendTo(out, totalPaise).append("\n");
+    }
+
+    private static void summary(StringBuilder out, long subtotal, double taxPercent, long tax, long discount, long total) {
+        Paise.appendTo(out.append("Subtotal: "), subtotal).append("\n");
+        out.append("Tax(");
+        if (taxPercent == Math.rint(taxPercent)) out.append((long) taxPercent);
+        else out.append(String.format("%.0f", taxPercent));
+        Paise.appendTo(out.append("%): "), tax).append("\n");
+        Paise.appendTo(out.append("Discount: -"), discount).append("\n");
+        Paise.appendTo(out.append("TOTAL: "), total).append("\n");
+    }
 }
 
 class InMemoryInvoiceStore implements InvoiceStore {
@@ -139,3 +414,19 @@ class InMemoryInvoiceStore implements InvoiceStore {
         return delegate.countLines(name);
     }
 }
+
+class ConcurrentInvoiceStore implements InvoiceStore {
+    private final Map<String, String> invoices = new ConcurrentHashMap<>();
+
+    @Override
+    public void save(String name, String content) {
+        invoices.put(name, content);
+    }
+
+    @Override
+    public int countLines(String name) {
+        String c = invoices.getOrDefault(name, "");
+        if (c.isEmpty()) return 0;
+        return c.split("\n").length;
+    }
+}
@@ -0,0 +1,20 @@
+public class CheckoutBatchReport {
+    public final long orders;
+    public final long totalPaise;
+    public final long elapsedNanos;
+
+    public CheckoutBatchReport(long orders, long totalPaise, long elapsedNanos) {
+        this.orders = orders; this.totalPaise = totalPaise; this.elapsedNanos = elapsedNanos;
+    }
+
+    public double ordersPerSecond() {
+        return elapsedNanos == 0 ? 0.0 : orders * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("BATCH: orders=").append(orders).append(" total=");
+        Paise.appendTo(sb, totalPaise);
+        return sb.append(String.format(" (%.0f orders/sec)", ordersPerSecond())).toString();
+    }
+}
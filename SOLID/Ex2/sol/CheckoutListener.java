@@ -0,0 +1,5 @@
+// Called after an invoice is stored. `bill` is a reused per-thread buffer:
+// read it during the call, do not keep it.
+public interface CheckoutListener {
+    void onCheckout(String invoiceId, String customerType, InvoiceBuffer bill, long epochMillis);
+}
@@ -0,0 +1,65 @@
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+// Tax and discount rules loaded from a properties file and compiled into a
+// PricingTable indexed by customer-type ordinal. Format:
+//
+//   tax.student=5
+//   tax.*=8
+//   discount.student=subtotal >= 180 ? 10 : 0
+//   discount.staff=lines >= 3 ? 15 : 5
+//   discount.*=0
+//
+// `*` is the fallback for unknown customer types; amounts are rupees.
+// reload() swaps in a freshly compiled table in one volatile write; a
+// checkout that took current() keeps that version throughout. Callers that
+// want TaxPolicy/DiscountPolicy use current() too, so tax and discount for
+// one bill always come from the same version.
+public class CompiledPricingPolicy {
+    static final String DEFAULT_RULES = String.join("\n",
+            "tax.student=5",
+            "tax.staff=2",
+            "tax.*=8",
+            "discount.student=subtotal >= 180 ? 10 : 0",
+            "discount.staff=lines >= 3 ? 15 : 5",
+            "discount.*=0");
+
+    private final Path source;
+    private volatile PricingTable table;
+    private FileTime loadedAt;
+
+    // Built-in rules, same as TaxRules/DiscountRules.
+    public CompiledPricingPolicy() {
+        this.source = null;
+        this.table = PricingTable.compile(new StringReader(DEFAULT_RULES), 1);
+    }
+
+    public CompiledPricingPolicy(Path source) throws IOException {
+        this.source = source;
+        reload();
+    }
+
+    public PricingTable current() { return table; }
+
+    // On a bad file the previous table stays active and the error propagates.
+    public synchronized void reload() throws IOException {
+        if (source == null) throw new IllegalStateException("built-in pricing rules have no file to reload");
+        FileTime modified = Files.getLastModifiedTime(source);
+        try (Reader in = Files.newBufferedReader(source, StandardCharsets.UTF_8)) {
+            long version = table == null ? 1 : table.version + 1;
+            table = PricingTable.compile(in, version);
+        }
+        loadedAt = modified;
+    }
+
+    public synchronized boolean reloadIfChanged() throws IOException {
+        if (source == null || Files.getLastModifiedTime(source).equals(loadedAt)) return false;
+        reload();
+        return true;
+    }
+}
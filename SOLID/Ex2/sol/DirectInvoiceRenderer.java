@@ -0,0 +1,120 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+// Writes invoice text as UTF-8 bytes straight into the caller's buffer:
+// no String.format, no intermediate String, and the line count falls out
+// of rendering. Text is identical to DefaultInvoiceRenderer.
+public class DirectInvoiceRenderer implements InvoiceRenderer {
+    private static final byte[] INVOICE = ascii("Invoice# ");
+    private static final byte[] DASH = ascii("- ");
+    private static final byte[] TIMES = ascii(" x");
+    private static final byte[] EQUALS = ascii(" = ");
+    private static final byte[] SUBTOTAL = ascii("Subtotal: ");
+    private static final byte[] TAX = ascii("Tax(");
+    private static final byte[] TAX_CLOSE = ascii("%): ");
+    private static final byte[] DISCOUNT = ascii("Discount: -");
+    private static final byte[] TOTAL = ascii("TOTAL: ");
+
+    @Override
+    public String render(String invoiceId, List<InvoiceLine> lines, BillSummary summary) {
+        InvoiceBuffer bill = new InvoiceBuffer();
+        for (InvoiceLine l : lines) bill.add(l.itemName, l.qty, l.lineTotalPaise);
+        bill.taxPercent = summary.taxPercent;
+        bill.subtotalPaise = summary.subtotalPaise;
+        bill.taxPaise = summary.taxPaise;
+        bill.discountPaise = summary.discountPaise;
+        bill.totalPaise = summary.totalPaise;
+        return render(invoiceId, bill);
+    }
+
+    @Override
+    public String render(String invoiceId, InvoiceBuffer bill) {
+        ByteBuffer out = ByteBuffer.allocate(128 + bill.size * 64);
+        renderTo(invoiceId, bill, out);
+        return new String(out.array(), 0, out.position(), StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public int renderTo(String invoiceId, InvoiceBuffer bill, ByteBuffer out) {
+        out.put(INVOICE);
+        putText(out, invoiceId);
+        out.put((byte) '\n');
+        for (int i = 0; i < bill.size; i++) {
+            out.put(DASH);
+            putText(out, bill.itemNames[i]);
+            out.put(TIMES);
+            putLong(out, bill.qty[i]);
+            out.put(EQUALS);
+            putPaise(out, bill.lineTotalPaise[i]);
+            out.put((byte) '\n');
+        }
+        out.put(SUBTOTAL);
+        putPaise(out, bill.subtotalPaise);
+        out.put((byte) '\n');
+        out.put(TAX);
+        if (bill.taxPercent == Math.rint(bill.taxPercent)) putLong(out, (long) bill.taxPercent);
+        else putText(out, String.format("%.0f", bill.taxPercent));
+        out.put(TAX_CLOSE);
+        putPaise(out, bill.taxPaise);
+        out.put((byte) '\n');
+        out.put(DISCOUNT);
+        putPaise(out, bill.discountPaise);
+        out.put((byte) '\n');
+        out.put(TOTAL);
+        putPaise(out, bill.totalPaise);
+        out.put((byte) '\n');
+        return bill.size + 5;
+    }
+
+    // Two-place amount: "160.00", "-0.50".
+    static void putPaise(ByteBuffer out, long paise) {
+        if (paise < 0) {
+            out.put((byte) '-');
+            paise = -paise;
+        }
+        putLong(out, paise / 100);
+        out.put((byte) '.');
+        long frac = paise % 100;
+        out.put((byte) ('0' + frac / 10));
+        out.put((byte) ('0' + frac % 10));
+    }
+
+    // Decimal digits written in place, most significant first.
+    static void putLong(ByteBuffer out, long v) {
+        if (v < 0) {
+            if (v == Long.MIN_VALUE) {
+                out.put(ascii(Long.toString(v)));
+                return;
+            }
+            out.put((byte) '-');
+            v = -v;
+        }
+        int digits = 1;
+        for (long t = v; t >= 10; t /= 10) digits++;
+        int end = out.position() + digits;
+        if (end > out.limit()) throw new java.nio.BufferOverflowException();
+        for (int p = end - 1; p >= out.position(); p--) {
+            out.put(p, (byte) ('0' + v % 10));
+            v /= 10;
+        }
+        out.position(end);
+    }
+
+    // ASCII fast path; anything else goes through the UTF-8 encoder.
+    static void putText(ByteBuffer out, String s) {
+        int n = s.length();
+        for (int i = 0; i < n; i++) {
+            if (s.charAt(i) >= 0x80) {
+                out.put(s.getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+        }
+        if (n > out.remaining()) throw new java.nio.BufferOverflowException();
+        for (int i = 0; i < n; i++) out.put((byte) s.charAt(i));
+    }
+
+    private static byte[] ascii(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+}
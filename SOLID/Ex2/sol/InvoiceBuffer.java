@@ -0,0 +1,31 @@
+import java.util.Arrays;
+
+// Reusable, per-thread bill: invoice lines as parallel primitive arrays plus
+// the summary in paise, so pricing a checkout allocates nothing once warm.
+public class InvoiceBuffer {
+    String[] itemNames = new String[8];
+    int[] qty = new int[8];
+    long[] lineTotalPaise = new long[8];
+    int size;
+
+    double taxPercent;
+    long subtotalPaise, taxPaise, discountPaise, totalPaise;
+
+    InvoiceBuffer reset() {
+        Arrays.fill(itemNames, 0, size, null);
+        size = 0;
+        return this;
+    }
+
+    void add(String itemName, int qty, long lineTotalPaise) {
+        if (size == itemNames.length) {
+            itemNames = Arrays.copyOf(itemNames, size * 2);
+            this.qty = Arrays.copyOf(this.qty, size * 2);
+            this.lineTotalPaise = Arrays.copyOf(this.lineTotalPaise, size * 2);
+        }
+        itemNames[size] = itemName;
+        this.qty[size] = qty;
+        this.lineTotalPaise[size] = lineTotalPaise;
+        size++;
+    }
+}
@@ -2,8 +2,12 @@ public class MenuItem {
     public final String id;
     public final String name;
     public final double price;
+    private final long pricePaise;
 
     public MenuItem(String id, String name, double price) {
         this.id = id; this.name = name; this.price = price;
+        this.pricePaise = Paise.of(price);
     }
+
+    public long pricePaise() { return pricePaise; }
 }
@@ -0,0 +1,10 @@
+import java.util.*;
+
+public class Order {
+    public final String customerType;
+    public final List<OrderLine> lines;
+
+    public Order(String customerType, List<OrderLine> lines) {
+        this.customerType = customerType; this.lines = lines;
+    }
+}
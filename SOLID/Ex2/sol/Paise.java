@@ -0,0 +1,25 @@
+// Fixed-point money: amounts are whole paise in a long.
+public class Paise {
+    public static long of(double rupees) { return Math.round(rupees * 100.0); }
+
+    public static double toRupees(long paise) { return paise / 100.0; }
+
+    // Rates are taken to basis points (5.0% -> 500); rounds half up.
+    public static long percentOf(long paise, double percent) {
+        long bp = Math.round(percent * 100.0);
+        long scaled = paise * bp;
+        return scaled >= 0 ? (scaled + 5_000) / 10_000 : -((-scaled + 5_000) / 10_000);
+    }
+
+    // Appends e.g. "160.00" / "-0.50" without going through String.format.
+    public static StringBuilder appendTo(StringBuilder sb, long paise) {
+        if (paise < 0) {
+            sb.append('-');
+            paise = -paise;
+        }
+        long frac = paise % 100;
+        sb.append(paise / 100).append('.');
+        if (frac < 10) sb.append('0');
+        return sb.append(frac);
+    }
+}
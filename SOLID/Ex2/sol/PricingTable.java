@@ -0,0 +1,130 @@
+import java.io.IOException;
+import java.io.Reader;
+import java.util.*;
+
+// Immutable, dense decision table; row 0 is the `*` fallback.
+public class PricingTable implements TaxPolicy, DiscountPolicy {
+    private static final byte ALWAYS = 0, SUBTOTAL = 1, LINES = 2;
+
+    final long version;
+    private final Map<String, Integer> ordinals;
+    private final double[] taxPercent;
+    private final byte[] metric;
+    private final long[] threshold;
+    private final long[] whenMet;
+    private final long[] otherwise;
+
+    private PricingTable(long version, Map<String, Integer> ordinals, int rows) {
+        this.version = version;
+        this.ordinals = ordinals;
+        this.taxPercent = new double[rows];
+        this.metric = new byte[rows];
+        this.threshold = new long[rows];
+        this.whenMet = new long[rows];
+        this.otherwise = new long[rows];
+    }
+
+    static PricingTable compile(Reader in, long version) {
+        Properties p = new Properties();
+        try {
+            p.load(in);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("cannot read pricing rules", e);
+        }
+        Map<String, Integer> ordinals = new HashMap<>();
+        ordinals.put("*", 0);
+        for (String key : p.stringPropertyNames()) {
+            String type = typeOf(key);
+            ordinals.putIfAbsent(type, ordinals.size());
+        }
+        int rows = ordinals.size();
+        PricingTable t = new PricingTable(version, Map.copyOf(ordinals), rows);
+        Arrays.fill(t.taxPercent, Double.NaN);
+        boolean[] hasDiscount = new boolean[rows];
+        for (String key : p.stringPropertyNames()) {
+            int row = ordinals.get(typeOf(key));
+            String value = p.getProperty(key).trim();
+            if (key.startsWith("tax.")) {
+                t.taxPercent[row] = Double.parseDouble(value);
+            } else {
+                t.compileDiscount(row, value);
+                hasDiscount[row] = true;
+            }
+        }
+        if (Double.isNaN(t.taxPercent[0])) throw new IllegalArgumentException("missing tax.*");
+        // Types without their own rate or discount rule fall back to `*`.
+        for (int i = 1; i < rows; i++) {
+            if (Double.isNaN(t.taxPercent[i])) t.taxPercent[i] = t.taxPercent[0];
+            if (!hasDiscount[i]) {
+                t.metric[i] = t.metric[0];
+                t.threshold[i] = t.threshold[0];
+                t.whenMet[i] = t.whenMet[0];
+                t.otherwise[i] = t.otherwise[0];
+            }
+        }
+        return t;
+    }
+
+    // Row keys are lower case; the usual lower-case call-site literal hits on
+    // the first lookup, anything else is lowered once and looked up again.
+    int ordinalOf(String customerType) {
+        if (customerType == null) return 0;
+        Integer row = ordinals.get(customerType);
+        if (row == null) row = ordinals.get(customerType.toLowerCase(Locale.ROOT));
+        return row == null ? 0 : row;
+    }
+
+    double taxPercent(int ordinal) { return taxPercent[ordinal]; }
+
+    long discountPaise(int ordinal, long subtotalPaise, int distinctLines) {
+        long observed = metric[ordinal] == SUBTOTAL ? subtotalPaise : distinctLines;
+        return metric[ordinal] == ALWAYS || observed >= threshold[ordinal] ? whenMet[ordinal] : otherwise[ordinal];
+    }
+
+    @Override
+    public double taxPercent(String customerType) { return taxPercent[ordinalOf(customerType)]; }
+
+    @Override
+    public double discountAmount(String customerType, double subtotal, int distinctLines) {
+        return Paise.toRupees(discountPaise(customerType, Paise.of(subtotal), distinctLines));
+    }
+
+    @Override
+    public long discountPaise(String customerType, long subtotalPaise, int distinctLines) {
+        return discountPaise(ordinalOf(customerType), subtotalPaise, distinctLines);
+    }
+
+    // "<subtotal|lines> >= N ? A : B" or a constant "A".
+    private void compileDiscount(int row, String rule) {
+        int q = rule.indexOf('?');
+        if (q < 0) {
+            metric[row] = ALWAYS;
+            whenMet[row] = Paise.of(Double.parseDouble(rule));
+            return;
+        }
+        int c = rule.indexOf(':', q);
+        String[] cond = rule.substring(0, q).trim().split("\\s*>=\\s*");
+        if (c < 0 || cond.length != 2) throw new IllegalArgumentException("bad discount rule: " + rule);
+        switch (cond[0]) {
+            case "subtotal" -> {
+                metric[row] = SUBTOTAL;
+                threshold[row] = Paise.of(Double.parseDouble(cond[1]));
+            }
+            case "lines" -> {
+                metric[row] = LINES;
+                threshold[row] = Long.parseLong(cond[1]);
+            }
+            default -> throw new IllegalArgumentException("unknown discount metric: " + cond[0]);
+        }
+        whenMet[row] = Paise.of(Double.parseDouble(rule.substring(q + 1, c).trim()));
+        otherwise[row] = Paise.of(Double.parseDouble(rule.substring(c + 1).trim()));
+    }
+
+    private static String typeOf(String key) {
+        int dot = key.indexOf('.');
+        String kind = dot < 0 ? key : key.substring(0, dot);
+        if (dot < 0 || !(kind.equals("tax") || kind.equals("discount")))
+            throw new IllegalArgumentException("unknown pricing key: " + key);
+        return key.substring(dot + 1).toLowerCase(Locale.ROOT);
+    }
+}
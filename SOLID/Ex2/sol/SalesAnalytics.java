@@ -0,0 +1,358 @@
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+// Incremental sales rollups fed from checkout (see CheckoutListener):
+// per item, per customer type, per time bucket, and per (bucket, item).
+// Item and customer-type names are mapped to int ids once; every rollup
+// lives in a LongKeyedStats table of primitive columns, so recording a
+// checkout allocates nothing and a query walks only the occupied buckets.
+// Per-item rows count an order once however many lines name the item, and
+// carry the bill's tax and discount split across its lines in proportion to
+// line revenue (exact in paise: the shares add up to the bill's totals).
+//
+// Rendered invoices carry neither customer type nor checkout time, so
+// rebuilding uses a compact binary sales journal this class can append to.
+// The journal is a magic header followed by [int length][record] frames;
+// a frame cut off by a crash is detected on rebuild and truncated away.
+public class SalesAnalytics implements CheckoutListener, Closeable {
+    static final int ORDERS = 0, QUANTITY = 1, REVENUE = 2, TAX = 3, DISCOUNT = 4;
+    private static final int ITEM_BITS = 20;
+    private static final int JOURNAL_MAGIC = 0x53414c31;
+
+    private final long bucketMillis;
+    private final DataOutputStream journal;
+    // Each record is encoded here first, so a failure never leaves a partial frame.
+    private final ByteArrayOutputStream frameBytes = new ByteArrayOutputStream(256);
+    private final DataOutputStream frame = new DataOutputStream(frameBytes);
+
+    private final Map<String, Integer> itemIds = new HashMap<>();
+    private final List<String> itemNames = new ArrayList<>();
+    private final Map<String, Integer> typeIds = new HashMap<>();
+    private final List<String> typeNames = new ArrayList<>();
+
+    private final LongKeyedStats byItem = new LongKeyedStats();
+    private final LongKeyedStats byType = new LongKeyedStats();
+    private final LongKeyedStats byBucket = new LongKeyedStats();
+    private final LongKeyedStats byItemBucket = new LongKeyedStats();
+    private int[] lineItems = new int[16];
+
+    public SalesAnalytics(long bucketMillis) {
+        this.bucketMillis = bucketMillis;
+        this.journal = null;
+    }
+
+    public SalesAnalytics(long bucketMillis, Path journal) throws IOException {
+        this.bucketMillis = bucketMillis;
+        boolean fresh = !Files.exists(journal) || Files.size(journal) == 0;
+        if (!fresh) checkMagic(journal);
+        this.journal = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(journal, StandardOpenOption.CREATE, StandardOpenOption.APPEND), 64 * 1024));
+        if (fresh) this.journal.writeInt(JOURNAL_MAGIC);
+    }
+
+    // Replays a journal into fresh rollups (and keeps appending to it). An
+    // incomplete or unreadable last frame is cut off before appending resumes.
+    public static SalesAnalytics rebuild(long bucketMillis, Path journal) throws IOException {
+        SalesAnalytics a = new SalesAnalytics(bucketMillis);
+        if (Files.exists(journal) && Files.size(journal) < 4) {
+            // Crashed before the header was flushed: nothing was recorded.
+            Files.delete(journal);
+        }
+        if (Files.exists(journal)) {
+            checkMagic(journal);
+            long good = 4;
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(journal), 64 * 1024))) {
+                in.readInt();
+                InvoiceBuffer bill = new InvoiceBuffer();
+                byte[] buf = new byte[256];
+                while (true) {
+                    int len;
+                    try {
+                        len = in.readInt();
+                        if (len < 0) break;
+                        if (len > buf.length) buf = new byte[Math.max(len, buf.length * 2)];
+                        in.readFully(buf, 0, len);
+                    } catch (EOFException torn) {
+                        break;
+                    }
+                    DataInputStream rec = new DataInputStream(new ByteArrayInputStream(buf, 0, len));
+                    long at;
+                    String type;
+                    try {
+                        at = rec.readLong();
+                        type = rec.readBoolean() ? rec.readUTF() : null;
+                        bill.reset();
+                        bill.subtotalPaise = rec.readLong();
+                        bill.taxPaise = rec.readLong();
+                        bill.discountPaise = rec.readLong();
+                        int n = rec.readInt();
+                        for (int i = 0; i < n; i++) bill.add(rec.readUTF(), rec.readInt(), rec.readLong());
+                    } catch (IOException corrupt) {
+                        break;
+                    }
+                    a.record(type, bill, at);
+                    good += 4 + len;
+                }
+            }
+            if (good < Files.size(journal)) {
+                try (FileChannel ch = FileChannel.open(journal, StandardOpenOption.WRITE)) {
+                    ch.truncate(good);
+                }
+            }
+        }
+        SalesAnalytics live = new SalesAnalytics(bucketMillis, journal);
+        live.copyFrom(a);
+        return live;
+    }
+
+    private static void checkMagic(Path journal) throws IOException {
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(journal))) {
+            if (Files.size(journal) < 4 || in.readInt() != JOURNAL_MAGIC) throw new IOException("not a sales journal: " + journal);
+        }
+    }
+
+    @Override
+    public synchronized void onCheckout(String invoiceId, String customerType, InvoiceBuffer bill, long epochMillis) {
+        record(customerType, bill, epochMillis);
+        if (journal != null) append(customerType, bill, epochMillis);
+    }
+
+    public synchronized void flush() throws IOException {
+        if (journal != null) journal.flush();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (journal != null) journal.close();
+    }
+
+    public synchronized List<SalesRollup> byItem() {
+        List<SalesRollup> out = new ArrayList<>(byItem.size());
+        byItem.forEach((key, row) -> out.add(rollup(itemNames.get((int) key), -1, byItem, row)));
+        return out;
+    }
+
+    public synchronized List<SalesRollup> byCustomerType() {
+        List<SalesRollup> out = new ArrayList<>(byType.size());
+        byType.forEach((key, row) -> out.add(rollup(typeNames.get((int) key), -1, byType, row)));
+        return out;
+    }
+
+    public synchronized List<SalesRollup> byTimeBucket() {
+        List<SalesRollup> out = new ArrayList<>(byBucket.size());
+        byBucket.forEach((key, row) -> out.add(rollup(null, key * bucketMillis, byBucket, row)));
+        out.sort(Comparator.comparingLong(r -> r.bucketStartMillis));
+        return out;
+    }
+
+    // e.g. revenue per item per hour.
+    public synchronized List<SalesRollup> byItemAndTimeBucket() {
+        List<SalesRollup> out = new ArrayList<>(byItemBucket.size());
+        byItemBucket.forEach((key, row) -> out.add(rollup(itemNames.get((int) (key & ((1 << ITEM_BITS) - 1))),
+                (key >> ITEM_BITS) * bucketMillis, byItemBucket, row)));
+        out.sort(Comparator.comparingLong((SalesRollup r) -> r.bucketStartMillis).thenComparing(r -> r.key));
+        return out;
+    }
+
+    private void record(String customerType, InvoiceBuffer bill, long epochMillis) {
+        long bucket = Math.floorDiv(epochMillis, bucketMillis);
+        int type = idOf(typeIds, typeNames, customerType);
+        if (lineItems.length < bill.size) lineItems = new int[Math.max(bill.size, lineItems.length * 2)];
+        // Lines are weighted by revenue; an all-zero bill splits evenly.
+        long weights = 0;
+        for (int i = 0; i < bill.size; i++) weights += bill.lineTotalPaise[i];
+        boolean even = weights == 0;
+        if (even) weights = bill.size;
+        long qty = 0, weightSoFar = 0, taxSoFar = 0, discountSoFar = 0;
+        for (int i = 0; i < bill.size; i++) {
+            int item = idOf(itemIds, itemNames, bill.itemNames[i]);
+            lineItems[i] = item;
+            qty += bill.qty[i];
+            long orders = firstLineOf(item, i) ? 1 : 0;
+            weightSoFar += even ? 1 : bill.lineTotalPaise[i];
+            long taxTo = shareOf(bill.taxPaise, weightSoFar, weights);
+            long discountTo = shareOf(bill.discountPaise, weightSoFar, weights);
+            long tax = taxTo - taxSoFar, discount = discountTo - discountSoFar;
+            taxSoFar = taxTo;
+            discountSoFar = discountTo;
+            add(byItem.row(item), byItem, orders, bill.qty[i], bill.lineTotalPaise[i], tax, discount);
+            long key = (bucket << ITEM_BITS) | item;
+            add(byItemBucket.row(key), byItemBucket, orders, bill.qty[i], bill.lineTotalPaise[i], tax, discount);
+        }
+        add(byType.row(type), byType, 1, qty, bill.subtotalPaise, bill.taxPaise, bill.discountPaise);
+        add(byBucket.row(bucket), byBucket, 1, qty, bill.subtotalPaise, bill.taxPaise, bill.discountPaise);
+    }
+
+    private boolean firstLineOf(int item, int line) {
+        for (int j = 0; j < line; j++) if (lineItems[j] == item) return false;
+        return true;
+    }
+
+    // floor(amount * upTo / total) without overflowing the product; the
+    // shares of consecutive prefixes differ by each line's part.
+    private static long shareOf(long amount, long upTo, long total) {
+        long whole = Math.floorDiv(amount, total), rest = Math.floorMod(amount, total);
+        return whole * upTo + Math.floorDiv(Math.multiplyExact(rest, upTo), total);
+    }
+
+    private static void add(int row, LongKeyedStats t, long orders, long qty, long revenue, long tax, long discount) {
+        t.add(row, ORDERS, orders);
+        t.add(row, QUANTITY, qty);
+        t.add(row, REVENUE, revenue);
+        t.add(row, TAX, tax);
+        t.add(row, DISCOUNT, discount);
+    }
+
+    private static int idOf(Map<String, Integer> ids, List<String> names, String name) {
+        Integer id = ids.get(name);
+        if (id != null) return id;
+        if (names.size() == 1 << ITEM_BITS) throw new IllegalStateException("too many distinct names");
+        ids.put(name, names.size());
+        names.add(name);
+        return names.size() - 1;
+    }
+
+    private void append(String customerType, InvoiceBuffer bill, long epochMillis) {
+        try {
+            frameBytes.reset();
+            frame.writeLong(epochMillis);
+            frame.writeBoolean(customerType != null);
+            if (customerType != null) frame.writeUTF(customerType);
+            frame.writeLong(bill.subtotalPaise);
+            frame.writeLong(bill.taxPaise);
+            frame.writeLong(bill.discountPaise);
+            frame.writeInt(bill.size);
+            for (int i = 0; i < bill.size; i++) {
+                frame.writeUTF(bill.itemNames[i]);
+                frame.writeInt(bill.qty[i]);
+                frame.writeLong(bill.lineTotalPaise[i]);
+            }
+            journal.writeInt(frameBytes.size());
+            frameBytes.writeTo(journal);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void copyFrom(SalesAnalytics a) {
+        itemIds.putAll(a.itemIds);
+        itemNames.addAll(a.itemNames);
+        typeIds.putAll(a.typeIds);
+        typeNames.addAll(a.typeNames);
+        byItem.addAll(a.byItem);
+        byType.addAll(a.byType);
+        byBucket.addAll(a.byBucket);
+        byItemBucket.addAll(a.byItemBucket);
+    }
+
+    private static SalesRollup rollup(String key, long bucketStart, LongKeyedStats t, int row) {
+        return new SalesRollup(key, bucketStart, t.get(row, ORDERS), t.get(row, QUANTITY), t.get(row, REVENUE),
+                t.get(row, TAX), t.get(row, DISCOUNT));
+    }
+
+    public static class SalesRollup {
+        public final String key;
+        public final long bucketStartMillis;
+        public final long orders, quantity, revenuePaise, taxPaise, discountPaise;
+
+        public SalesRollup(String key, long bucketStartMillis, long orders, long quantity, long revenuePaise, long taxPaise, long discountPaise) {
+            this.key = key;
+            this.bucketStartMillis = bucketStartMillis;
+            this.orders = orders;
+            this.quantity = quantity;
+            this.revenuePaise = revenuePaise;
+            this.taxPaise = taxPaise;
+            this.discountPaise = discountPaise;
+        }
+
+        @Override
+        public String toString() {
+            return "SalesRollup{key=" + key + ", bucket=" + bucketStartMillis + ", orders=" + orders + ", qty=" + quantity
+                    + ", revenue=" + Paise.appendTo(new StringBuilder(), revenuePaise) + "}";
+        }
+    }
+}
+
+// Open-addressing long -> row map with one long[] per metric column.
+class LongKeyedStats {
+    private static final int COLUMNS = 5;
+
+    private long[] keys = new long[16];
+    private int[] rows = new int[16];
+    private boolean[] used = new boolean[16];
+    private long[][] columns = new long[COLUMNS][16];
+    private long[] rowKeys = new long[16];
+    private int size;
+
+    interface RowVisitor {
+        void visit(long key, int row);
+    }
+
+    int size() { return size; }
+
+    int row(long key) {
+        int mask = keys.length - 1;
+        int i = mix(key) & mask;
+        while (used[i]) {
+            if (keys[i] == key) return rows[i];
+            i = (i + 1) & mask;
+        }
+        if (size * 2 >= keys.length) {
+            grow();
+            return row(key);
+        }
+        used[i] = true;
+        keys[i] = key;
+        rows[i] = size;
+        if (size == rowKeys.length) {
+            rowKeys = Arrays.copyOf(rowKeys, size * 2);
+            for (int c = 0; c < COLUMNS; c++) columns[c] = Arrays.copyOf(columns[c], size * 2);
+        }
+        rowKeys[size] = key;
+        return size++;
+    }
+
+    void add(int row, int column, long delta) { columns[column][row] += delta; }
+
+    long get(int row, int column) { return columns[column][row]; }
+
+    // O(rows), not O(capacity).
+    void forEach(RowVisitor v) {
+        for (int r = 0; r < size; r++) v.visit(rowKeys[r], r);
+    }
+
+    void addAll(LongKeyedStats other) {
+        for (int r = 0; r < other.size; r++) {
+            int row = row(other.rowKeys[r]);
+            for (int c = 0; c < COLUMNS; c++) columns[c][row] += other.columns[c][r];
+        }
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldRows = rows;
+        boolean[] oldUsed = used;
+        keys = new long[oldKeys.length * 2];
+        rows = new int[oldKeys.length * 2];
+        used = new boolean[oldKeys.length * 2];
+        int mask = keys.length - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (!oldUsed[j]) continue;
+            int i = mix(oldKeys[j]) & mask;
+            while (used[i]) i = (i + 1) & mask;
+            used[i] = true;
+            keys[i] = oldKeys[j];
+            rows[i] = oldRows[j];
+        }
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,309 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+// On-disk InvoiceStore.
+// Invoices are appended to rolling segment files and fsync'd as a group
+// every `groupCommitSize` saves (or on flush()/close()). Only the active
+// segment keeps an in-heap offset map; when it rolls, that map is written
+// out as a sorted (nameHash, offset) index next to the segment and dropped,
+// so heap stays bounded by one segment no matter how many invoices exist.
+// Lookups in sealed segments binary-search the memory-mapped index and
+// read the record from the memory-mapped segment, newest segment first.
+public class SegmentedInvoiceStore implements InvoiceStore, Closeable {
+    private static final int INDEX_ENTRY = 8 + 8;
+
+    private final Path dir;
+    private final long segmentBytes;
+    private final int groupCommitSize;
+
+    private final List<Sealed> sealed = new ArrayList<>();
+    private final Map<String, Long> active = new HashMap<>();
+    private int activeId;
+    private FileChannel activeChannel;
+    private long activeSize;
+    private long writtenSize;
+
+    private final ByteBuffer pending = ByteBuffer.allocate(256 * 1024);
+    private int pendingSaves;
+
+    public SegmentedInvoiceStore(Path dir) throws IOException {
+        this(dir, 64L * 1024 * 1024, 64);
+    }
+
+    public SegmentedInvoiceStore(Path dir, long segmentBytes, int groupCommitSize) throws IOException {
+        if (segmentBytes > Integer.MAX_VALUE) throw new IllegalArgumentException("segments are mapped with int offsets");
+        this.dir = dir;
+        this.segmentBytes = segmentBytes;
+        this.groupCommitSize = groupCommitSize;
+        Files.createDirectories(dir);
+        open();
+    }
+
+    @Override
+    public void save(String name, String content) {
+        int lines = content.isEmpty() ? 0 : content.split("\n").length;
+        save(name, ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8)), lines);
+    }
+
+    @Override
+    public synchronized void save(String name, ByteBuffer content, int lineCount) {
+        try {
+            byte[] key = name.getBytes(StandardCharsets.UTF_8);
+            if (key.length > 0xFFFF) throw new IllegalArgumentException("invoice name too long: " + key.length + " bytes");
+            int recordLen = 4 + 2 + key.length + 4 + 4 + content.remaining();
+            if (activeSize > 0 && activeSize + recordLen > segmentBytes) roll();
+            if (recordLen > pending.remaining()) commit();
+            ByteBuffer out = recordLen > pending.capacity() ? ByteBuffer.allocate(recordLen) : pending;
+            out.putInt(recordLen - 4).putShort((short) key.length).put(key).putInt(lineCount)
+               .putInt(content.remaining()).put(content);
+            if (out != pending) {
+                commit();
+                write(out.flip());
+                writtenSize += recordLen;
+            }
+            active.put(name, activeSize);
+            activeSize += recordLen;
+            if (++pendingSaves >= groupCommitSize) commit();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // One lock hold and one trailing fsync for the whole group.
+    @Override
+    public synchronized void saveAll(String[] names, ByteBuffer[] contents, int[] lineCounts, int count) {
+        for (int i = 0; i < count; i++) save(names[i], contents[i], lineCounts[i]);
+        try {
+            commit();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public synchronized int countLines(String name) {
+        ByteBuffer rec = find(name);
+        return rec == null ? 0 : rec.getInt();
+    }
+
+    // Point lookup; null if the invoice was never saved.
+    public synchronized String load(String name) {
+        ByteBuffer rec = find(name);
+        if (rec == null) return null;
+        rec.getInt();
+        int len = rec.getInt();
+        byte[] b = new byte[len];
+        rec.get(b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+
+    public synchronized void flush() throws IOException { commit(); }
+
+    @Override
+    public synchronized void close() throws IOException {
+        commit();
+        activeChannel.close();
+    }
+
+    // Returns the record positioned just after its name, or null.
+    private ByteBuffer find(String name) {
+        try {
+            Long off = active.get(name);
+            if (off != null) {
+                if (off >= writtenSize) commit();
+                ByteBuffer len = ByteBuffer.allocate(4);
+                readFully(activeChannel, len, off);
+                ByteBuffer rec = ByteBuffer.allocate(len.flip().getInt());
+                readFully(activeChannel, rec, off + 4);
+                rec.flip();
+                return matchName(rec, name) ? rec : null;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        long h = hash(name);
+        for (int i = sealed.size() - 1; i >= 0; i--) {
+            ByteBuffer rec = sealed.get(i).find(name, h);
+            if (rec != null) return rec;
+        }
+        return null;
+    }
+
+    private void roll() throws IOException {
+        commit();
+        activeChannel.close();
+        sealed.add(seal(activeId, active));
+        active.clear();
+        openActive(activeId + 1, 0);
+    }
+
+    private void commit() throws IOException {
+        if (pending.position() == 0) return;
+        int n = pending.position();
+        write(pending.flip());
+        pending.clear();
+        activeChannel.force(false);
+        writtenSize += n;
+        pendingSaves = 0;
+    }
+
+    private void write(ByteBuffer buf) throws IOException {
+        while (buf.hasRemaining()) activeChannel.write(buf);
+    }
+
+    private void open() throws IOException {
+        int[] ids = segmentIds();
+        for (int k = 0; k < ids.length; k++) {
+            int id = ids[k];
+            boolean last = k == ids.length - 1;
+            if (Files.exists(indexPath(id))) {
+                sealed.add(new Sealed(id));
+                continue;
+            }
+            Map<String, Long> offsets = new HashMap<>();
+            long end = replay(id, offsets);
+            if (last) {
+                active.putAll(offsets);
+                openActive(id, end);
+                return;
+            }
+            sealed.add(seal(id, offsets));
+        }
+        openActive(ids.length == 0 ? 1 : ids[ids.length - 1] + 1, 0);
+    }
+
+    private void openActive(int id, long size) throws IOException {
+        activeId = id;
+        activeChannel = FileChannel.open(segmentPath(id), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        activeChannel.position(size);
+        activeSize = size;
+        writtenSize = size;
+    }
+
+    // Rebuilds a segment's offsets; a torn last record is truncated away.
+    private long replay(int id, Map<String, Long> offsets) throws IOException {
+        try (FileChannel ch = FileChannel.open(segmentPath(id), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = ch.size();
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            int good = 0;
+            while (buf.remaining() >= 4) {
+                int len = buf.getInt(good);
+                if (len < 2 || good + 4L + len > size) break;
+                ByteBuffer rec = buf.slice(good + 4, len);
+                byte[] key = new byte[rec.getShort() & 0xFFFF];
+                rec.get(key);
+                offsets.put(new String(key, StandardCharsets.UTF_8), (long) good);
+                good += 4 + len;
+                buf.position(good);
+            }
+            if (good < size) ch.truncate(good);
+            return good;
+        }
+    }
+
+    private Sealed seal(int id, Map<String, Long> offsets) throws IOException {
+        long[][] entries = new long[offsets.size()][];
+        int i = 0;
+        for (Map.Entry<String, Long> e : offsets.entrySet()) entries[i++] = new long[] { hash(e.getKey()), e.getValue() };
+        Arrays.sort(entries, (a, b) -> Long.compare(a[0], b[0]));
+        Path tmp = dir.resolve(String.format("segment-%06d.idx.tmp", id));
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buf = ByteBuffer.allocate(64 * 1024);
+            for (long[] e : entries) {
+                if (buf.remaining() < INDEX_ENTRY) {
+                    buf.flip();
+                    while (buf.hasRemaining()) ch.write(buf);
+                    buf.clear();
+                }
+                buf.putLong(e[0]).putLong(e[1]);
+            }
+            buf.flip();
+            while (buf.hasRemaining()) ch.write(buf);
+            ch.force(true);
+        }
+        Files.move(tmp, indexPath(id), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return new Sealed(id);
+    }
+
+    private class Sealed {
+        final MappedByteBuffer data;
+        final MappedByteBuffer index;
+        final int entries;
+
+        Sealed(int id) throws IOException {
+            try (FileChannel d = FileChannel.open(segmentPath(id), StandardOpenOption.READ);
+                 FileChannel x = FileChannel.open(indexPath(id), StandardOpenOption.READ)) {
+                data = d.map(FileChannel.MapMode.READ_ONLY, 0, d.size());
+                index = x.map(FileChannel.MapMode.READ_ONLY, 0, x.size());
+                entries = (int) (x.size() / INDEX_ENTRY);
+            }
+        }
+
+        ByteBuffer find(String name, long h) {
+            int lo = 0, hi = entries - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                long v = index.getLong(mid * INDEX_ENTRY);
+                if (v < h) lo = mid + 1;
+                else if (v > h) hi = mid - 1;
+                else {
+                    // Walk back to the first entry with this hash, then try each.
+                    while (mid > 0 && index.getLong((mid - 1) * INDEX_ENTRY) == h) mid--;
+                    for (int k = mid; k < entries && index.getLong(k * INDEX_ENTRY) == h; k++) {
+                        int off = (int) index.getLong(k * INDEX_ENTRY + 8);
+                        ByteBuffer rec = data.slice(off + 4, data.getInt(off));
+                        if (matchName(rec, name)) return rec;
+                    }
+                    return null;
+                }
+            }
+            return null;
+        }
+    }
+
+    private static boolean matchName(ByteBuffer rec, String name) {
+        byte[] key = new byte[rec.getShort() & 0xFFFF];
+        rec.get(key);
+        return name.equals(new String(key, StandardCharsets.UTF_8));
+    }
+
+    // 64-bit FNV-1a over the UTF-16 chars.
+    private static long hash(String s) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < s.length(); i++) {
+            h ^= s.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    private static void readFully(FileChannel ch, ByteBuffer buf, long pos) throws IOException {
+        while (buf.hasRemaining()) {
+            int n = ch.read(buf, pos);
+            if (n < 0) throw new IOException("unexpected end of segment");
+            pos += n;
+        }
+    }
+
+    private Path segmentPath(int id) { return dir.resolve(String.format("segment-%06d.log", id)); }
+
+    private Path indexPath(int id) { return dir.resolve(String.format("segment-%06d.idx", id)); }
+
+    private int[] segmentIds() throws IOException {
+        List<Integer> ids = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "segment-*.log")) {
+            for (Path p : files) {
+                String n = p.getFileName().toString();
+                ids.add(Integer.parseInt(n.substring("segment-".length(), n.length() - ".log".length())));
+            }
+        }
+        return ids.stream().mapToInt(Integer::intValue).sorted().toArray();
+    }
+}
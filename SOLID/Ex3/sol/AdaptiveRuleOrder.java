@@ -0,0 +1,150 @@
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+// Short-circuit order for a fixed rule list, tuned from live traffic.
+// One evaluation in `sampleEvery` (picked at random) runs every rule,
+// timing each one's fails() check and recording whether it rejected; the
+// counters are LongAdders so concurrent evaluations don't contend on one
+// cache line, and unsampled calls touch none of them. Once about
+// `reorderEvery` evaluations have passed, rules are re-sorted by cost /
+// rejection rate (cheapest expected path to a rejection first) and the new
+// Plan is published in one volatile write.
+class AdaptiveRuleOrder {
+    private final List<EligibilityRule> rules;
+    private final int sampleEvery;
+    private final long reorderEvery;
+
+    private final LongAdder samples = new LongAdder();
+    private final LongAdder[] hits;
+    private final LongAdder[] rejections;
+    private final LongAdder[] nanos;
+
+    private final AtomicBoolean reordering = new AtomicBoolean();
+    private volatile Plan plan;
+    private volatile long nextReorderAt;
+
+    AdaptiveRuleOrder(List<EligibilityRule> rules, int sampleEvery, long reorderEvery) {
+        if (sampleEvery < 1 || reorderEvery < 1) throw new IllegalArgumentException("sampleEvery and reorderEvery must be positive");
+        this.rules = rules;
+        this.sampleEvery = sampleEvery;
+        this.reorderEvery = reorderEvery;
+        int n = rules.size();
+        hits = new LongAdder[n];
+        rejections = new LongAdder[n];
+        nanos = new LongAdder[n];
+        int[] declared = new int[n];
+        for (int i = 0; i < n; i++) {
+            hits[i] = new LongAdder();
+            rejections[i] = new LongAdder();
+            nanos[i] = new LongAdder();
+            declared[i] = i;
+        }
+        plan = new Plan(rules, declared);
+        nextReorderAt = reorderEvery;
+    }
+
+    // First failure in the current order. With canonicalReason, rules declared
+    // before the one that fired are re-checked so the reported reason is the
+    // one the fixed order would have given. Rules are run through fails() and
+    // only the reported rule builds its message, so samples time the check
+    // alone.
+    EligibilityEngineResult evaluate(StudentProfile s, boolean canonicalReason) {
+        Plan p = plan;
+        int failed = -1;
+        if (ThreadLocalRandom.current().nextInt(sampleEvery) != 0) {
+            EligibilityRule[] rs = p.rules;
+            for (int i = 0; i < rs.length && failed < 0; i++) {
+                if (rs[i].fails(s)) failed = p.order[i];
+            }
+        } else {
+            for (int r : p.order) {
+                long t0 = System.nanoTime();
+                boolean rejected = rules.get(r).fails(s);
+                nanos[r].add(System.nanoTime() - t0);
+                hits[r].increment();
+                if (rejected) {
+                    rejections[r].increment();
+                    if (failed < 0) failed = r;
+                }
+            }
+            samples.increment();
+            maybeReorder();
+        }
+        List<String> reasons = new ArrayList<>();
+        if (failed < 0) return new EligibilityEngineResult("ELIGIBLE", reasons);
+        for (int r = 0; canonicalReason && r < failed; r++) {
+            if (rules.get(r).fails(s)) {
+                failed = r;
+                break;
+            }
+        }
+        reasons.add(rules.get(failed).reasonIfNotEligible(s).get());
+        return new EligibilityEngineResult("NOT_ELIGIBLE", reasons);
+    }
+
+    private void maybeReorder() {
+        long seen = evaluations();
+        if (seen < nextReorderAt || !reordering.compareAndSet(false, true)) return;
+        try {
+            Integer[] next = new Integer[rules.size()];
+            double[] score = new double[next.length];
+            for (int r = 0; r < next.length; r++) {
+                next[r] = r;
+                double p = rejectionRate(r);
+                score[r] = p == 0 ? Double.POSITIVE_INFINITY : avgNanos(r) / p;
+            }
+            // Rules that never reject go last, cheapest first; ties keep declared order.
+            Arrays.sort(next, (a, b) -> {
+                int c = Double.compare(score[a], score[b]);
+                return c != 0 ? c : Double.compare(avgNanos(a), avgNanos(b));
+            });
+            int[] order = new int[next.length];
+            for (int i = 0; i < order.length; i++) order[i] = next[i];
+            plan = new Plan(rules, order);
+            nextReorderAt = seen + reorderEvery;
+        } finally {
+            reordering.set(false);
+        }
+    }
+
+    // Estimated from the sample count; exact counting would cost a shared
+    // increment on every call.
+    private long evaluations() { return samples.sum() * sampleEvery; }
+
+    private double rejectionRate(int r) {
+        long h = hits[r].sum();
+        return h == 0 ? 0 : (double) rejections[r].sum() / h;
+    }
+
+    private double avgNanos(int r) {
+        long h = hits[r].sum();
+        return h == 0 ? 0 : (double) nanos[r].sum() / h;
+    }
+
+    // One entry per rule, in the engine's declared order.
+    List<RuleStats> stats() {
+        int[] order = plan.order;
+        int[] position = new int[order.length];
+        for (int i = 0; i < order.length; i++) position[order[i]] = i;
+        long total = evaluations();
+        List<RuleStats> out = new ArrayList<>(order.length);
+        for (int r = 0; r < order.length; r++) {
+            out.add(new RuleStats(rules.get(r).getClass().getSimpleName(), position[r], total,
+                    hits[r].sum(), rejectionRate(r), avgNanos(r)));
+        }
+        return out;
+    }
+
+    private static class Plan {
+        final int[] order;
+        final EligibilityRule[] rules;
+
+        Plan(List<EligibilityRule> declared, int[] order) {
+            this.order = order;
+            this.rules = new EligibilityRule[order.length];
+            for (int i = 0; i < order.length; i++) rules[i] = declared.get(order[i]);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+import java.util.*;
+
+// Result of EligibilityEngine.evaluateBatch: one failure bitmap per rule
+// (bit i set = student i fails that rule) plus, per student, the index of
+// the first failing rule in engine order (-1 = eligible).
+public class BatchEligibility {
+    private final StudentColumns students;
+    private final List<EligibilityRule> rules;
+    private final long[][] failures;
+    private final byte[] firstFailure;
+
+    BatchEligibility(StudentColumns students, List<EligibilityRule> rules, long[][] failures, byte[] firstFailure) {
+        this.students = students;
+        this.rules = rules;
+        this.failures = failures;
+        this.firstFailure = firstFailure;
+    }
+
+    public int size() { return students.size; }
+
+    public boolean isEligible(int i) { return firstFailure[i] < 0; }
+
+    public String status(int i) { return isEligible(i) ? "ELIGIBLE" : "NOT_ELIGIBLE"; }
+
+    public long[] failureBitmap(int ruleIndex) { return failures[ruleIndex]; }
+
+    public int eligibleCount() {
+        int n = 0;
+        for (byte f : firstFailure) if (f < 0) n++;
+        return n;
+    }
+
+    // Same result evaluate() would give; the reason text is only built here.
+    public EligibilityEngineResult result(int i) {
+        if (isEligible(i)) return new EligibilityEngineResult("ELIGIBLE", new ArrayList<>());
+        List<String> reasons = new ArrayList<>();
+        rules.get(firstFailure[i]).reasonIfNotEligible(students.profile(i)).ifPresent(reasons::add);
+        return new EligibilityEngineResult("NOT_ELIGIBLE", reasons);
+    }
+}
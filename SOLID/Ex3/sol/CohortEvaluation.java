@@ -0,0 +1,23 @@
+// Output of EligibilityEngine.evaluateAll: students and their results,
+// both in roll-number order.
+public class CohortEvaluation {
+    private final StudentProfile[] students;
+    private final EvaluationResult[] results;
+
+    CohortEvaluation(StudentProfile[] students, EvaluationResult[] results) {
+        this.students = students;
+        this.results = results;
+    }
+
+    public int size() { return students.length; }
+
+    public StudentProfile student(int i) { return students[i]; }
+
+    public EvaluationResult result(int i) { return results[i]; }
+
+    public int eligibleCount() {
+        int n = 0;
+        for (EvaluationResult r : results) if (r.isEligible()) n++;
+        return n;
+    }
+}
@@ -0,0 +1,211 @@
+import java.util.*;
+
+// LRU cache of evaluation results in front of an EligibilityEngine.
+// The key is the profile fields the rules read (cgr, attendance, credits,
+// flag), so students with identical numbers share an entry. Every entry
+// carries the rule-set version it was computed under. Each lookup compares
+// the live RuleInput with the thresholds the engine was built from; on a
+// change the engine is rebuilt and the version bumped, which turns every
+// older entry into a miss without walking the map.
+//
+// The key hash picks one of up to 16 segments, each with its own lock and
+// its own LRU order over maxEntries / segments slots, so concurrent lookups
+// rarely meet on a lock and eviction is LRU per segment. Inside a segment,
+// keys and links live in primitive arrays: a lookup allocates nothing, and
+// the rules run outside the lock on a miss.
+public class EligibilityCache {
+    private static final int MAX_SEGMENTS = 16;
+
+    private final FakeEligibilityStore store;
+    private final RuleInput input;
+    private final Segment[] segments;
+    private final int segmentShift;
+    private volatile Rules rules;
+
+    public EligibilityCache(FakeEligibilityStore store, RuleInput input, int maxEntries) {
+        if (maxEntries < 1) throw new IllegalArgumentException("maxEntries must be positive");
+        this.store = store;
+        this.input = input;
+        int n = Integer.highestOneBit(Math.min(maxEntries, MAX_SEGMENTS));
+        this.segments = new Segment[n];
+        for (int i = 0; i < n; i++) segments[i] = new Segment(maxEntries / n + (i < maxEntries % n ? 1 : 0));
+        this.segmentShift = 64 - Integer.numberOfTrailingZeros(n);
+        this.rules = build(input, 1);
+    }
+
+    // The returned result is shared with the cache; treat it as read-only.
+    public EvaluationResult evaluate(StudentProfile s) {
+        Rules r = rules;
+        if (input.minCgr != r.minCgr || input.minAttendance != r.minAttendance || input.minCredits != r.minCredits)
+            r = rebuild();
+        long cgrBits = Double.doubleToLongBits(s.cgr);
+        long counts = (long) s.attendancePct << 32 | (s.earnedCredits & 0xffffffffL);
+        int flag = s.disciplinaryFlag;
+        long hash = hash(cgrBits, counts, flag);
+        Segment seg = segments.length == 1 ? segments[0] : segments[(int) (hash >>> segmentShift)];
+        EvaluationResult cached = seg.get(hash, cgrBits, counts, flag, r.version);
+        if (cached != null) return cached;
+        EvaluationResult result = r.engine.evaluateInto(s, new EvaluationResult());
+        seg.put(hash, cgrBits, counts, flag, r.version, result);
+        return result;
+    }
+
+    // For rule changes RuleInput cannot express; O(1).
+    public synchronized void invalidateAll() {
+        Rules r = rules;
+        rules = new Rules(r.minCgr, r.minAttendance, r.minCredits, r.engine, r.version + 1);
+    }
+
+    public long version() { return rules.version; }
+
+    public long hits() {
+        long n = 0;
+        for (Segment seg : segments) synchronized (seg) { n += seg.hits; }
+        return n;
+    }
+
+    public long misses() {
+        long n = 0;
+        for (Segment seg : segments) synchronized (seg) { n += seg.misses; }
+        return n;
+    }
+
+    public int size() {
+        int n = 0;
+        for (Segment seg : segments) synchronized (seg) { n += seg.size; }
+        return n;
+    }
+
+    private synchronized Rules rebuild() {
+        Rules r = rules;
+        if (input.minCgr == r.minCgr && input.minAttendance == r.minAttendance && input.minCredits == r.minCredits)
+            return r;
+        r = build(input, r.version + 1);
+        rules = r;
+        return r;
+    }
+
+    private Rules build(RuleInput live, long version) {
+        RuleInput snapshot = new RuleInput();
+        snapshot.minCgr = live.minCgr;
+        snapshot.minAttendance = live.minAttendance;
+        snapshot.minCredits = live.minCredits;
+        return new Rules(snapshot.minCgr, snapshot.minAttendance, snapshot.minCredits,
+                new EligibilityEngine(store, snapshot), version);
+    }
+
+    private static long hash(long cgrBits, long counts, int flag) {
+        long h = cgrBits * 0x9E3779B97F4A7C15L ^ counts * 0xC2B2AE3D27D4EB4FL ^ flag;
+        h ^= h >>> 31;
+        h *= 0xBF58476D1CE4E5B9L;
+        return h ^ h >>> 29;
+    }
+
+    // Thresholds the engine was built from, plus the version entries must carry.
+    private record Rules(double minCgr, int minAttendance, int minCredits, EligibilityEngine engine, long version) {}
+
+    // Fixed pool of `capacity` nodes in parallel arrays, an open-addressing
+    // index (linear probing, backward-shift delete) from key to node, and a
+    // doubly linked LRU list through prev/next; head is the eldest node.
+    private static class Segment {
+        private static final int NONE = -1;
+
+        final long[] cgrBits, counts, versions;
+        final int[] flags, prev, next;
+        final EvaluationResult[] results;
+        final int[] slots;  // node + 1, 0 = empty
+        final int mask;
+        int size, head = NONE, tail = NONE;
+        long hits, misses;
+
+        Segment(int capacity) {
+            cgrBits = new long[capacity];
+            counts = new long[capacity];
+            versions = new long[capacity];
+            flags = new int[capacity];
+            prev = new int[capacity];
+            next = new int[capacity];
+            results = new EvaluationResult[capacity];
+            slots = new int[Integer.highestOneBit(capacity) << 2];
+            mask = slots.length - 1;
+        }
+
+        synchronized EvaluationResult get(long hash, long cgr, long count, int flag, long version) {
+            int node = find(hash, cgr, count, flag);
+            if (node != NONE && versions[node] == version) {
+                hits++;
+                moveToTail(node);
+                return results[node];
+            }
+            misses++;
+            return null;
+        }
+
+        synchronized void put(long hash, long cgr, long count, int flag, long version, EvaluationResult result) {
+            int node = find(hash, cgr, count, flag);
+            if (node == NONE) {
+                if (size < results.length) {
+                    node = size++;
+                } else {
+                    node = head;
+                    unlink(node);
+                    removeSlot(node);
+                }
+                cgrBits[node] = cgr;
+                counts[node] = count;
+                flags[node] = flag;
+                int i = (int) hash & mask;
+                while (slots[i] != 0) i = (i + 1) & mask;
+                slots[i] = node + 1;
+                linkLast(node);
+            } else {
+                moveToTail(node);
+            }
+            versions[node] = version;
+            results[node] = result;
+        }
+
+        private int find(long hash, long cgr, long count, int flag) {
+            for (int i = (int) hash & mask; slots[i] != 0; i = (i + 1) & mask) {
+                int node = slots[i] - 1;
+                if (cgrBits[node] == cgr && counts[node] == count && flags[node] == flag) return node;
+            }
+            return NONE;
+        }
+
+        // Backward-shift delete, so probe chains never need tombstones.
+        private void removeSlot(int node) {
+            int i = (int) hash(cgrBits[node], counts[node], flags[node]) & mask;
+            while (slots[i] != node + 1) i = (i + 1) & mask;
+            for (int j = (i + 1) & mask; slots[j] != 0; j = (j + 1) & mask) {
+                int n = slots[j] - 1;
+                int home = (int) hash(cgrBits[n], counts[n], flags[n]) & mask;
+                // Move n back into the hole unless its home lies in (i, j].
+                if (((j - home) & mask) >= ((j - i) & mask)) {
+                    slots[i] = slots[j];
+                    i = j;
+                }
+            }
+            slots[i] = 0;
+        }
+
+        private void moveToTail(int node) {
+            if (node == tail) return;
+            unlink(node);
+            linkLast(node);
+        }
+
+        private void unlink(int node) {
+            int p = prev[node], n = next[node];
+            if (p == NONE) head = n; else next[p] = n;
+            if (n == NONE) tail = p; else prev[n] = p;
+        }
+
+        private void linkLast(int node) {
+            prev[node] = tail;
+            next[node] = NONE;
+            if (tail == NONE) head = node; else next[tail] = node;
+            tail = node;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+import java.util.*;
+
+// Students whose status flipped after a threshold change.
+public class EligibilityDelta {
+    public final List<String> newlyEligible;
+    public final List<String> newlyIneligible;
+    public final int rechecked;
+
+    public EligibilityDelta(List<String> newlyEligible, List<String> newlyIneligible, int rechecked) {
+        this.newlyEligible = newlyEligible;
+        this.newlyIneligible = newlyIneligible;
+        this.rechecked = rechecked;
+    }
+
+    public boolean isEmpty() { return newlyEligible.isEmpty() && newlyIneligible.isEmpty(); }
+
+    // One store call for the whole delta.
+    public void writeTo(FakeEligibilityStore store) {
+        int n = newlyEligible.size() + newlyIneligible.size();
+        String[] rolls = new String[n], statuses = new String[n];
+        int k = 0;
+        for (String roll : newlyEligible) { rolls[k] = roll; statuses[k++] = "ELIGIBLE"; }
+        for (String roll : newlyIneligible) { rolls[k] = roll; statuses[k++] = "NOT_ELIGIBLE"; }
+        store.saveAll(rolls, statuses, n);
+    }
+}
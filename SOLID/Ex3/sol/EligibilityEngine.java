@@ -1,31 +1,139 @@
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 public class EligibilityEngine {
+    private static final int DEFAULT_FLUSH_SIZE = 1024;
+    private static final int SPLIT_BELOW = 4096;
+
     private final FakeEligibilityStore store;
     private final List<EligibilityRule> rules;
+    private final EligibilityRule[] ruleArray;
+    private final ReportPrinter printer = new ReportPrinter();
+    private final ThreadLocal<EvaluationResult> scratch = ThreadLocal.withInitial(EvaluationResult::new);
+    private volatile AdaptiveRuleOrder adaptive;
 
     public EligibilityEngine(FakeEligibilityStore store) {
         this(store, new RuleInput());
     }
 
     public EligibilityEngine(FakeEligibilityStore store, RuleInput input) {
-        this.store = store;
-        this.rules = List.of(
+        this(store, List.of(
                 new NoDisciplinaryFlagRule(),
                 new MinCgrRule(input.minCgr),
                 new MinAttendanceRule(input.minAttendance),
                 new MinCreditsRule(input.minCredits)
-        );
+        ));
+    }
+
+    // Single compiled rule, e.g. "cgr >= 7.5 && attendancePct >= 75"; see RuleExpression.
+    public EligibilityEngine(FakeEligibilityStore store, String ruleExpression) {
+        this(store, List.of(new ExpressionRule(ruleExpression)));
+    }
+
+    private EligibilityEngine(FakeEligibilityStore store, List<EligibilityRule> rules) {
+        this.store = store;
+        this.rules = rules;
+        this.ruleArray = rules.toArray(new EligibilityRule[0]);
     }
 
     public void runAndPrint(StudentProfile s) {
-        ReportPrinter p = new ReportPrinter();
-        EligibilityEngineResult r = evaluate(s);
-        p.print(s, r);
-        store.save(s.rollNo, r.status);
+        EvaluationResult r = evaluateInto(s, scratch.get());
+        printer.print(s, r);
+        store.save(s.rollNo, r.status());
+    }
+
+    public CohortEvaluation evaluateAll(List<StudentProfile> students) {
+        return evaluateAll(students, ForkJoinPool.commonPool(), DEFAULT_FLUSH_SIZE);
+    }
+
+    // Sorts the cohort by roll number and evaluates it in parallel, both on
+    // `pool` (parallelSort forks into the pool it is called from), then
+    // saves the statuses in roll order, `flushSize` per store call.
+    // Nothing is printed per student.
+    public CohortEvaluation evaluateAll(List<StudentProfile> students, ForkJoinPool pool, int flushSize) {
+        if (flushSize < 1) throw new IllegalArgumentException("flushSize must be positive");
+        StudentProfile[] sorted = students.toArray(new StudentProfile[0]);
+        pool.submit(() -> Arrays.parallelSort(sorted, Comparator.comparing((StudentProfile s) -> s.rollNo))).join();
+        EvaluationResult[] results = new EvaluationResult[sorted.length];
+        pool.invoke(new EvaluateRange(sorted, results, 0, sorted.length));
+
+        String[] rolls = new String[Math.min(flushSize, sorted.length)];
+        String[] statuses = new String[rolls.length];
+        int pending = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            rolls[pending] = sorted[i].rollNo;
+            statuses[pending++] = results[i].status();
+            if (pending == rolls.length) {
+                store.saveAll(rolls, statuses, pending);
+                pending = 0;
+            }
+        }
+        if (pending > 0) store.saveAll(rolls, statuses, pending);
+        return new CohortEvaluation(sorted, results);
+    }
+
+    private class EvaluateRange extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final StudentProfile[] students;
+        private final EvaluationResult[] results;
+        private final int from, to;
+
+        EvaluateRange(StudentProfile[] students, EvaluationResult[] results, int from, int to) {
+            this.students = students;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SPLIT_BELOW) {
+                for (int i = from; i < to; i++) results[i] = evaluateInto(students[i], new EvaluationResult());
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new EvaluateRange(students, results, from, mid), new EvaluateRange(students, results, mid, to));
+        }
+    }
+
+    // Garbage-free variant of evaluate(): fills `out` (first failure in
+    // declared order wins) and returns it. Messages are left to the caller.
+    public EvaluationResult evaluateInto(StudentProfile s, EvaluationResult out) {
+        for (EligibilityRule rule : ruleArray) {
+            if (rule.fails(s)) {
+                out.fail(rule);
+                return out;
+            }
+        }
+        out.pass();
+        return out;
+    }
+
+    // Rules run in the learned order from then on; evaluate(s, true) still
+    // reports the reason the fixed order would have given.
+    public void enableAdaptiveOrdering(int sampleEvery, long reorderEvery) {
+        adaptive = new AdaptiveRuleOrder(rules, sampleEvery, reorderEvery);
+    }
+
+    public void disableAdaptiveOrdering() { adaptive = null; }
+
+    // Empty unless adaptive ordering is on.
+    public List<RuleStats> ruleStats() {
+        AdaptiveRuleOrder a = adaptive;
+        return a == null ? List.of() : a.stats();
     }
 
     public EligibilityEngineResult evaluate(StudentProfile s) {
+        return evaluate(s, false);
+    }
+
+    // With canonicalReason, the reported failure is always the first one in
+    // declared rule order, whatever order the rules actually ran in.
+    public EligibilityEngineResult evaluate(StudentProfile s, boolean canonicalReason) {
+        AdaptiveRuleOrder a = adaptive;
+        if (a != null) return a.evaluate(s, canonicalReason);
         List<String> reasons = new ArrayList<>();
         String status = "ELIGIBLE";
 
@@ -40,10 +148,44 @@ public class EligibilityEngine {
 
         return new EligibilityEngineResult(status, reasons);
     }
+
+    // Column-at-a-time evaluation: each rule makes one pass over the cohort,
+    // then its flags are folded into a bitmap and the first-failure index.
+    public BatchEligibility evaluateBatch(StudentColumns c) {
+        int n = c.size;
+        int words = (n + 63) >>> 6;
+        long[][] failures = new long[rules.size()][words];
+        byte[] firstFailure = new byte[n];
+        Arrays.fill(firstFailure, (byte) -1);
+        byte[] failed = new byte[n];
+        for (int r = 0; r < rules.size(); r++) {
+            rules.get(r).markFailures(c, failed);
+            long[] bits = failures[r];
+            for (int i = 0; i < n; i++) {
+                bits[i >>> 6] |= (long) failed[i] << (i & 63);
+                if (failed[i] != 0 && firstFailure[i] < 0) firstFailure[i] = (byte) r;
+            }
+        }
+        return new BatchEligibility(c, rules, failures, firstFailure);
+    }
 }
 
 interface EligibilityRule {
     Optional<String> reasonIfNotEligible(StudentProfile student);
+
+    // Allocation-free form of reasonIfNotEligible; built-in rules override
+    // these and report a ReasonCode plus the threshold they enforce.
+    default boolean fails(StudentProfile student) { return reasonIfNotEligible(student).isPresent(); }
+
+    default ReasonCode reasonCode() { return ReasonCode.CUSTOM; }
+
+    default double threshold() { return 0; }
+
+    // failed[i] = 1 if student i fails this rule, else 0. Rules override this
+    // with a branch-free loop over their column; the default goes row by row.
+    default void markFailures(StudentColumns c, byte[] failed) {
+        for (int i = 0; i < c.size; i++) failed[i] = (byte) (reasonIfNotEligible(c.profile(i)).isPresent() ? 1 : 0);
+    }
 }
 
 class NoDisciplinaryFlagRule implements EligibilityRule {
@@ -54,6 +196,18 @@ class NoDisciplinaryFlagRule implements EligibilityRule {
         }
         return Optional.empty();
     }
+
+    @Override
+    public boolean fails(StudentProfile student) { return student.disciplinaryFlag != LegacyFlags.NONE; }
+
+    @Override
+    public ReasonCode reasonCode() { return ReasonCode.DISCIPLINARY_FLAG; }
+
+    @Override
+    public void markFailures(StudentColumns c, byte[] failed) {
+        int[] flag = c.disciplinaryFlag;
+        for (int i = 0; i < c.size; i++) failed[i] = (byte) (flag[i] != LegacyFlags.NONE ? 1 : 0);
+    }
 }
 
 class MinCgrRule implements EligibilityRule {
@@ -70,6 +224,21 @@ class MinCgrRule implements EligibilityRule {
         }
         return Optional.empty();
     }
+
+    @Override
+    public boolean fails(StudentProfile student) { return student.cgr < minCgr; }
+
+    @Override
+    public ReasonCode reasonCode() { return ReasonCode.CGR_BELOW; }
+
+    @Override
+    public double threshold() { return minCgr; }
+
+    @Override
+    public void markFailures(StudentColumns c, byte[] failed) {
+        double[] cgr = c.cgr;
+        for (int i = 0; i < c.size; i++) failed[i] = (byte) (cgr[i] < minCgr ? 1 : 0);
+    }
 }
 
 class MinAttendanceRule implements EligibilityRule {
@@ -86,6 +255,21 @@ class MinAttendanceRule implements EligibilityRule {
         }
         return Optional.empty();
     }
+
+    @Override
+    public boolean fails(StudentProfile student) { return student.attendancePct < minAttendance; }
+
+    @Override
+    public ReasonCode reasonCode() { return ReasonCode.ATTENDANCE_BELOW; }
+
+    @Override
+    public double threshold() { return minAttendance; }
+
+    @Override
+    public void markFailures(StudentColumns c, byte[] failed) {
+        int[] att = c.attendancePct;
+        for (int i = 0; i < c.size; i++) failed[i] = (byte) (att[i] < minAttendance ? 1 : 0);
+    }
 }
 
 class MinCreditsRule implements EligibilityRule {
@@ -102,6 +286,21 @@ class MinCreditsRule implements EligibilityRule {
         }
         return Optional.empty();
     }
+
+    @Override
+    public boolean fails(StudentProfile student) { return student.earnedCredits < minCredits; }
+
+    @Override
+    public ReasonCode reasonCode() { return ReasonCode.CREDITS_BELOW; }
+
+    @Override
+    public double threshold() { return minCredits; }
+
+    @Override
+    public void markFailures(StudentColumns c, byte[] failed) {
+        int[] credits = c.earnedCredits;
+        for (int i = 0; i < c.size; i++) failed[i] = (byte) (credits[i] < minCredits ? 1 : 0);
+    }
 }
 
 class EligibilityEngineResult {
@@ -0,0 +1,41 @@
+// Mutable, reusable outcome of EligibilityEngine.evaluateInto: a reason code
+// and the threshold that was missed instead of a message string.
+public class EvaluationResult {
+    public static final String ELIGIBLE = "ELIGIBLE";
+    public static final String NOT_ELIGIBLE = "NOT_ELIGIBLE";
+
+    private boolean eligible;
+    private ReasonCode reason;
+    private double threshold;
+    private EligibilityRule failedRule;
+
+    void pass() {
+        eligible = true;
+        reason = null;
+        threshold = 0;
+        failedRule = null;
+    }
+
+    void fail(EligibilityRule rule) {
+        eligible = false;
+        reason = rule.reasonCode();
+        threshold = rule.threshold();
+        failedRule = rule;
+    }
+
+    public boolean isEligible() { return eligible; }
+
+    public String status() { return eligible ? ELIGIBLE : NOT_ELIGIBLE; }
+
+    // Null when eligible.
+    public ReasonCode reason() { return reason; }
+
+    public double threshold() { return threshold; }
+
+    // Builds the text evaluate() would have put in reasons; null when eligible.
+    public String reasonMessage(StudentProfile s) {
+        if (eligible) return null;
+        if (reason != ReasonCode.CUSTOM) return reason.message(threshold);
+        return failedRule.reasonIfNotEligible(s).orElse(null);
+    }
+}
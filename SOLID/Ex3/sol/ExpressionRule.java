@@ -0,0 +1,19 @@
+import java.util.Optional;
+
+// Adapts a RuleExpression to the engine; the expression states what an
+// eligible student satisfies, so failing it is the rejection.
+public class ExpressionRule implements EligibilityRule {
+    private final RuleExpression expr;
+
+    ExpressionRule(String source) {
+        this.expr = RuleExpression.compile(source);
+    }
+
+    @Override
+    public Optional<String> reasonIfNotEligible(StudentProfile student) {
+        return fails(student) ? Optional.of("rule not met: " + expr.source()) : Optional.empty();
+    }
+
+    @Override
+    public boolean fails(StudentProfile student) { return !expr.test(student); }
+}
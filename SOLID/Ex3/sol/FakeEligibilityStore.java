@@ -2,4 +2,9 @@ public class FakeEligibilityStore {
     public void save(String roll, String status) {
         System.out.println("Saved evaluation for roll=" + roll);
     }
+
+    public void saveAll(String[] rolls, String[] statuses, int count) {
+        if (count == 0) return;
+        System.out.println("Saved " + count + " evaluations (" + rolls[0] + (count > 1 ? " .. " + rolls[count - 1] : "") + ")");
+    }
 }
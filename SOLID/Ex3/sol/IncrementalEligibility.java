@@ -0,0 +1,111 @@
+import java.util.*;
+
+// Keeps the eligibility of a fixed cohort current across RuleInput changes.
+// cgr, attendance and credits each get a sorted index (values plus row ids),
+// so moving a threshold from a to b only re-checks the rows whose value lies
+// in [min(a, b), max(a, b)) -- the only ones whose rule outcome can flip.
+// Eligibility here is the engine's rule set: no flag and every value at or
+// above its threshold.
+public class IncrementalEligibility {
+    private final StudentColumns c;
+    private final SortedColumn byCgr;
+    private final SortedColumn byAttendance;
+    private final SortedColumn byCredits;
+    private final boolean[] eligible;
+    private double minCgr;
+    private int minAttendance;
+    private int minCredits;
+
+    public IncrementalEligibility(StudentColumns c, RuleInput input) {
+        this.c = c;
+        int n = c.size;
+        double[] att = new double[n], credits = new double[n];
+        for (int i = 0; i < n; i++) {
+            att[i] = c.attendancePct[i];
+            credits[i] = c.earnedCredits[i];
+        }
+        byCgr = new SortedColumn(c.cgr.clone());
+        byAttendance = new SortedColumn(att);
+        byCredits = new SortedColumn(credits);
+        minCgr = input.minCgr;
+        minAttendance = input.minAttendance;
+        minCredits = input.minCredits;
+        eligible = new boolean[n];
+        for (int i = 0; i < n; i++) eligible[i] = passes(i);
+    }
+
+    public boolean isEligible(int row) { return eligible[row]; }
+
+    public String status(int row) { return eligible[row] ? "ELIGIBLE" : "NOT_ELIGIBLE"; }
+
+    // Applies the thresholds in `next` (read once; RuleInput is mutable) and
+    // returns the rows whose status changed.
+    public EligibilityDelta reevaluate(RuleInput next) {
+        double oldCgr = minCgr;
+        int oldAttendance = minAttendance, oldCredits = minCredits;
+        minCgr = next.minCgr;
+        minAttendance = next.minAttendance;
+        minCredits = next.minCredits;
+
+        // A row can sit in more than one changed band; check it once.
+        BitSet candidates = new BitSet(c.size);
+        byCgr.markRange(Math.min(oldCgr, minCgr), Math.max(oldCgr, minCgr), candidates);
+        byAttendance.markRange(Math.min(oldAttendance, minAttendance), Math.max(oldAttendance, minAttendance), candidates);
+        byCredits.markRange(Math.min(oldCredits, minCredits), Math.max(oldCredits, minCredits), candidates);
+
+        List<String> nowEligible = new ArrayList<>(), nowIneligible = new ArrayList<>();
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            boolean ok = passes(i);
+            if (ok == eligible[i]) continue;
+            eligible[i] = ok;
+            (ok ? nowEligible : nowIneligible).add(c.rollNo[i]);
+        }
+        return new EligibilityDelta(nowEligible, nowIneligible, candidates.cardinality());
+    }
+
+    private boolean passes(int i) {
+        return c.disciplinaryFlag[i] == LegacyFlags.NONE && c.cgr[i] >= minCgr
+                && c.attendancePct[i] >= minAttendance && c.earnedCredits[i] >= minCredits;
+    }
+
+    // Column values in ascending order alongside the row each came from.
+    private static class SortedColumn {
+        final double[] values;
+        final int[] rows;
+
+        SortedColumn(double[] key) {
+            int n = key.length;
+            int[] idx = new int[n];
+            for (int i = 0; i < n; i++) idx[i] = i;
+            mergeSort(idx, new int[n], key, 0, n);
+            rows = idx;
+            values = new double[n];
+            for (int i = 0; i < n; i++) values[i] = key[idx[i]];
+        }
+
+        void markRange(double from, double to, BitSet out) {
+            for (int k = lowerBound(from), end = lowerBound(to); k < end; k++) out.set(rows[k]);
+        }
+
+        private int lowerBound(double v) {
+            int lo = 0, hi = values.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (values[mid] < v) lo = mid + 1; else hi = mid;
+            }
+            return lo;
+        }
+
+        private static void mergeSort(int[] a, int[] tmp, double[] key, int from, int to) {
+            if (to - from < 2) return;
+            int mid = (from + to) >>> 1;
+            mergeSort(a, tmp, key, from, mid);
+            mergeSort(a, tmp, key, mid, to);
+            if (key[a[mid - 1]] <= key[a[mid]]) return;
+            System.arraycopy(a, from, tmp, from, to - from);
+            for (int i = from, l = from, r = mid; i < to; i++) {
+                a[i] = r >= to || (l < mid && key[tmp[l]] <= key[tmp[r]]) ? tmp[l++] : tmp[r++];
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+// Why a rule rejected a student; the message text is only built on demand.
+public enum ReasonCode {
+    DISCIPLINARY_FLAG,
+    CGR_BELOW,
+    ATTENDANCE_BELOW,
+    CREDITS_BELOW,
+    // Rule without a code of its own; its message comes from reasonIfNotEligible.
+    CUSTOM;
+
+    public String message(double threshold) {
+        return switch (this) {
+            case DISCIPLINARY_FLAG -> "disciplinary flag present";
+            case CGR_BELOW -> "CGR below " + String.format("%.1f", threshold);
+            case ATTENDANCE_BELOW -> "attendance below " + (long) threshold;
+            case CREDITS_BELOW -> "credits below " + (long) threshold;
+            case CUSTOM -> throw new IllegalStateException("custom reasons need the rule and student");
+        };
+    }
+}
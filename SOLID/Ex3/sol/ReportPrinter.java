@@ -1,12 +1,23 @@
 public class ReportPrinter {
     public void print(StudentProfile s, EligibilityEngineResult r) {
-        System.out.println("Student: " + s.name + " (CGR=" + String.format("%.2f", s.cgr)
-                + ", attendance=" + s.attendancePct + ", credits=" + s.earnedCredits
-                + ", flag=" + LegacyFlags.nameOf(s.disciplinaryFlag) + ")");
+        printStudent(s);
         System.out.println("RESULT: " + r.status);
         for (String reason : r.reasons) System.out.println("- " + reason);
         if (r.reasons.isEmpty() && "ELIGIBLE".equals(r.status)) {
             // keep behavior stable even if empty
         }
     }
+
+    // The reason text is only built here, when a report is actually printed.
+    public void print(StudentProfile s, EvaluationResult r) {
+        printStudent(s);
+        System.out.println("RESULT: " + r.status());
+        if (!r.isEligible()) System.out.println("- " + r.reasonMessage(s));
+    }
+
+    private void printStudent(StudentProfile s) {
+        System.out.println("Student: " + s.name + " (CGR=" + String.format("%.2f", s.cgr)
+                + ", attendance=" + s.attendancePct + ", credits=" + s.earnedCredits
+                + ", flag=" + LegacyFlags.nameOf(s.disciplinaryFlag) + ")");
+    }
 }
@@ -0,0 +1,186 @@
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.*;
+
+// Eligibility criteria written as text over StudentProfile fields, e.g.
+//
+//   cgr >= 7.5 && attendancePct >= 75 && disciplinaryFlag == NONE
+//
+// Grammar: or := and ('||' and)*, and := unary ('&&' unary)*,
+// unary := '!' unary | '(' or ')' | field op value, where op is one of
+// >= > <= < == != and value is a number or a LegacyFlags name.
+// The whole expression compiles into one (StudentProfile)boolean
+// MethodHandle: field getters, constant-bound comparisons, and
+// guardWithTest for short-circuit && / ||. There is no per-rule interface
+// dispatch left for the JIT to see through.
+public class RuleExpression {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final MethodHandle TRUE = MethodHandles.dropArguments(MethodHandles.constant(boolean.class, true), 0, StudentProfile.class);
+    private static final MethodHandle FALSE = MethodHandles.dropArguments(MethodHandles.constant(boolean.class, false), 0, StudentProfile.class);
+    private static final MethodHandle NOT = find("not", MethodType.methodType(boolean.class, boolean.class));
+    private static final Map<String, MethodHandle> COMPARE = Map.of(
+            ">=", compare("ge"), ">", compare("gt"), "<=", compare("le"),
+            "<", compare("lt"), "==", compare("eq"), "!=", compare("ne"));
+    private static final Map<String, Integer> FLAGS = Map.of(
+            "NONE", LegacyFlags.NONE, "WARNING", LegacyFlags.WARNING, "SUSPENDED", LegacyFlags.SUSPENDED);
+
+    private final String source;
+    private final MethodHandle test;
+
+    private RuleExpression(String source, MethodHandle test) {
+        this.source = source;
+        this.test = test;
+    }
+
+    public static RuleExpression compile(String source) {
+        Parser p = new Parser(source);
+        MethodHandle h = p.or();
+        if (p.peek() != null) throw p.error("unexpected '" + p.peek() + "'");
+        return new RuleExpression(source, h);
+    }
+
+    public String source() { return source; }
+
+    // (StudentProfile)boolean; hold it in a static final field for the JIT to
+    // treat it as a constant and inline the whole expression.
+    public MethodHandle handle() { return test; }
+
+    public boolean test(StudentProfile s) {
+        try {
+            return (boolean) test.invokeExact(s);
+        } catch (Throwable t) {
+            throw new IllegalStateException("rule failed: " + source, t);
+        }
+    }
+
+    private static class Parser {
+        private final String src;
+        private final List<String> tokens = new ArrayList<>();
+        private final List<Integer> positions = new ArrayList<>();
+        private int at;
+
+        Parser(String src) {
+            this.src = src;
+            int i = 0;
+            while (i < src.length()) {
+                char c = src.charAt(i);
+                int start = i;
+                if (Character.isWhitespace(c)) { i++; continue; }
+                if (Character.isLetter(c)) {
+                    while (i < src.length() && Character.isLetterOrDigit(src.charAt(i))) i++;
+                } else if (Character.isDigit(c) || c == '.' || c == '-') {
+                    i++;
+                    while (i < src.length() && (Character.isDigit(src.charAt(i)) || src.charAt(i) == '.')) i++;
+                } else if (src.startsWith("&&", i) || src.startsWith("||", i) || src.startsWith(">=", i)
+                        || src.startsWith("<=", i) || src.startsWith("==", i) || src.startsWith("!=", i)) {
+                    i += 2;
+                } else if ("()<>!".indexOf(c) >= 0) {
+                    i++;
+                } else {
+                    throw new IllegalArgumentException("unexpected '" + c + "' at " + i + " in: " + src);
+                }
+                tokens.add(src.substring(start, i));
+                positions.add(start);
+            }
+        }
+
+        MethodHandle or() {
+            MethodHandle left = and();
+            while ("||".equals(peek())) {
+                at++;
+                left = MethodHandles.guardWithTest(left, TRUE, and());
+            }
+            return left;
+        }
+
+        MethodHandle and() {
+            MethodHandle left = unary();
+            while ("&&".equals(peek())) {
+                at++;
+                left = MethodHandles.guardWithTest(left, unary(), FALSE);
+            }
+            return left;
+        }
+
+        MethodHandle unary() {
+            String t = next();
+            if (t.equals("!")) return MethodHandles.filterReturnValue(unary(), NOT);
+            if (t.equals("(")) {
+                MethodHandle inner = or();
+                expect(")");
+                return inner;
+            }
+            MethodHandle field = field(t);
+            String op = next();
+            MethodHandle cmp = COMPARE.get(op);
+            if (cmp == null) throw errorAt(at - 1, "expected a comparison after " + t + ", got '" + op + "'");
+            double value = value(next());
+            return MethodHandles.filterArguments(MethodHandles.insertArguments(cmp, 1, value), 0, field);
+        }
+
+        private MethodHandle field(String name) {
+            Class<?> type = switch (name) {
+                case "cgr" -> double.class;
+                case "attendancePct", "earnedCredits", "disciplinaryFlag" -> int.class;
+                default -> null;
+            };
+            if (type == null) throw errorAt(at - 1, "unknown field '" + name + "'");
+            try {
+                MethodHandle getter = LOOKUP.findGetter(StudentProfile.class, name, type);
+                return getter.asType(MethodType.methodType(double.class, StudentProfile.class));
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private double value(String t) {
+            Integer flag = FLAGS.get(t);
+            if (flag != null) return flag;
+            try {
+                return Double.parseDouble(t);
+            } catch (NumberFormatException e) {
+                throw errorAt(at - 1, "expected a number, got '" + t + "'");
+            }
+        }
+
+        String peek() { return at < tokens.size() ? tokens.get(at) : null; }
+
+        private String next() {
+            if (at >= tokens.size()) throw new IllegalArgumentException("unexpected end of rule: " + src);
+            return tokens.get(at++);
+        }
+
+        private void expect(String t) {
+            if (!t.equals(peek())) throw error("expected '" + t + "'");
+            at++;
+        }
+
+        IllegalArgumentException error(String msg) { return errorAt(at, msg); }
+
+        private IllegalArgumentException errorAt(int token, String msg) {
+            int pos = token < positions.size() ? positions.get(token) : src.length();
+            return new IllegalArgumentException(msg + " at " + pos + " in: " + src);
+        }
+    }
+
+    private static MethodHandle compare(String name) {
+        return find(name, MethodType.methodType(boolean.class, double.class, double.class));
+    }
+
+    private static MethodHandle find(String name, MethodType type) {
+        try {
+            return LOOKUP.findStatic(RuleExpression.class, name, type);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static boolean ge(double v, double c) { return v >= c; }
+    private static boolean gt(double v, double c) { return v > c; }
+    private static boolean le(double v, double c) { return v <= c; }
+    private static boolean lt(double v, double c) { return v < c; }
+    private static boolean eq(double v, double c) { return v == c; }
+    private static boolean ne(double v, double c) { return v != c; }
+    private static boolean not(boolean b) { return !b; }
+}
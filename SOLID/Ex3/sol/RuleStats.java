@@ -0,0 +1,24 @@
+// Monitoring snapshot for one rule under adaptive ordering.
+public class RuleStats {
+    public final String rule;
+    public final int position;
+    public final long evaluations;      // estimated: sampled calls x sampling interval
+    public final long sampled;
+    public final double rejectionRate;
+    public final double avgNanos;
+
+    public RuleStats(String rule, int position, long evaluations, long sampled, double rejectionRate, double avgNanos) {
+        this.rule = rule;
+        this.position = position;
+        this.evaluations = evaluations;
+        this.sampled = sampled;
+        this.rejectionRate = rejectionRate;
+        this.avgNanos = avgNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s #%d evals=%d sampled=%d reject=%.3f cost=%.1fns",
+                rule, position, evaluations, sampled, rejectionRate, avgNanos);
+    }
+}
@@ -0,0 +1,39 @@
+import java.util.*;
+
+// Struct-of-arrays view of a cohort for batch evaluation.
+public class StudentColumns {
+    public final int size;
+    public final String[] rollNo;
+    public final String[] name;
+    public final double[] cgr;
+    public final int[] attendancePct;
+    public final int[] earnedCredits;
+    public final int[] disciplinaryFlag;
+
+    public StudentColumns(String[] rollNo, String[] name, double[] cgr, int[] attendancePct, int[] earnedCredits, int[] disciplinaryFlag) {
+        this.size = cgr.length;
+        if (rollNo.length != size || name.length != size || attendancePct.length != size
+                || earnedCredits.length != size || disciplinaryFlag.length != size)
+            throw new IllegalArgumentException("columns must have equal length");
+        this.rollNo = rollNo; this.name = name; this.cgr = cgr;
+        this.attendancePct = attendancePct; this.earnedCredits = earnedCredits;
+        this.disciplinaryFlag = disciplinaryFlag;
+    }
+
+    public static StudentColumns of(List<StudentProfile> students) {
+        int n = students.size();
+        String[] roll = new String[n], name = new String[n];
+        double[] cgr = new double[n];
+        int[] att = new int[n], credits = new int[n], flag = new int[n];
+        for (int i = 0; i < n; i++) {
+            StudentProfile s = students.get(i);
+            roll[i] = s.rollNo; name[i] = s.name; cgr[i] = s.cgr;
+            att[i] = s.attendancePct; credits[i] = s.earnedCredits; flag[i] = s.disciplinaryFlag;
+        }
+        return new StudentColumns(roll, name, cgr, att, credits, flag);
+    }
+
+    public StudentProfile profile(int i) {
+        return new StudentProfile(rollNo[i], name[i], cgr[i], attendancePct[i], earnedCredits[i], disciplinaryFlag[i]);
+    }
+}
@@ -0,0 +1,74 @@
+import java.util.*;
+
+// Table-driven pricing: add-ons become a bitmask (bit = AddOn ordinal, so a
+// repeated add-on is charged once) and the monthly fee is one load from a
+// precomputed [roomType][mask] table of cents. updateRates() builds a new
+// table and publishes it in one volatile write; a quote reads the table once,
+// so it never mixes old and new rates.
+public class BitmaskFeePolicy implements RoomPricingPolicy, AddOnPricingPolicy {
+    private static final int ROOM_TYPES = LegacyRoomTypes.DELUXE;
+    private static final int MASKS = 1 << AddOn.values().length;
+
+    private volatile long[] table;
+
+    // Same rates as the default policies.
+    public BitmaskFeePolicy() {
+        this(new long[] { Cents.of(14000.0), Cents.of(15000.0), Cents.of(12000.0), Cents.of(16000.0) },
+             new long[] { Cents.of(1000.0), Cents.of(500.0), Cents.of(300.0) });
+    }
+
+    // roomBaseCents by room type SINGLE..DELUXE, addOnCents by AddOn ordinal.
+    public BitmaskFeePolicy(long[] roomBaseCents, long[] addOnCents) {
+        updateRates(roomBaseCents, addOnCents);
+    }
+
+    public void updateRates(long[] roomBaseCents, long[] addOnCents) {
+        if (roomBaseCents.length != ROOM_TYPES || addOnCents.length != AddOn.values().length)
+            throw new IllegalArgumentException("expected " + ROOM_TYPES + " room rates and " + AddOn.values().length + " add-on rates");
+        long[] t = new long[ROOM_TYPES * MASKS];
+        for (int room = 0; room < ROOM_TYPES; room++) {
+            for (int mask = 0; mask < MASKS; mask++) {
+                long fee = roomBaseCents[room];
+                for (int a = 0; a < addOnCents.length; a++) if ((mask & (1 << a)) != 0) fee += addOnCents[a];
+                t[room * MASKS + mask] = fee;
+            }
+        }
+        table = t;
+    }
+
+    public static int maskOf(Collection<AddOn> addOns) {
+        int mask = 0;
+        for (AddOn a : addOns) mask |= 1 << a.ordinal();
+        return mask;
+    }
+
+    // Indexed form of maskOf for lists; no iterator.
+    public static int maskOf(List<AddOn> addOns) {
+        int mask = 0;
+        for (int i = 0, n = addOns.size(); i < n; i++) mask |= 1 << addOns.get(i).ordinal();
+        return mask;
+    }
+
+    // Unknown room types are priced as DELUXE, like DefaultRoomPricingPolicy.
+    public long monthlyCents(int roomType, int mask) {
+        int row = roomType >= LegacyRoomTypes.SINGLE && roomType <= LegacyRoomTypes.DELUXE ? roomType - 1 : ROOM_TYPES - 1;
+        return table[row * MASKS + (mask & (MASKS - 1))];
+    }
+
+    @Override
+    public Money monthlyBaseFor(int roomType) { return Money.ofCents(monthlyBaseCentsFor(roomType)); }
+
+    @Override
+    public long monthlyBaseCentsFor(int roomType) { return monthlyCents(roomType, 0); }
+
+    @Override
+    public Money totalFor(List<AddOn> addOns) { return Money.ofCents(totalCentsFor(addOns)); }
+
+    // Add-on share only; taken as a difference within one table version.
+    @Override
+    public long totalCentsFor(List<AddOn> addOns) {
+        long[] t = table;
+        int mask = maskOf(addOns);
+        return t[mask] - t[0];
+    }
+}
@@ -0,0 +1,17 @@
+// Fixed-point money: amounts are whole cents (1/100 rupee) in a long.
+public class Cents {
+    public static long of(double amount) { return Math.round(amount * 100.0); }
+
+    public static double toAmount(long cents) { return cents / 100.0; }
+
+    // e.g. "16000.00" / "-0.50", straight from the cents.
+    public static String format(long cents) {
+        StringBuilder sb = new StringBuilder(24);
+        if (cents < 0) sb.append('-');
+        long abs = Math.abs(cents);
+        long frac = abs % 100;
+        sb.append(abs / 100).append('.');
+        if (frac < 10) sb.append('0');
+        return sb.append(frac).toString();
+    }
+}
@@ -6,6 +6,8 @@ public class HostelFeeCalculator {
     private final AddOnPricingPolicy addOnPricingPolicy;
     private final BookingReceiptPrinter receiptPrinter;
     private final BookingIdGenerator bookingIdGenerator;
+    private final BitmaskFeePolicy feeTable;
+    private final RoomInventory inventory;
 
     public HostelFeeCalculator(FakeBookingRepo repo) {
         this(repo, new DefaultRoomPricingPolicy(), new DefaultAddOnPricingPolicy(), new ConsoleBookingReceiptPrinter(), new DeterministicBookingIdGenerator());
@@ -16,15 +18,67 @@ public class HostelFeeCalculator {
                                AddOnPricingPolicy addOnPricingPolicy,
                                BookingReceiptPrinter receiptPrinter,
                                BookingIdGenerator bookingIdGenerator) {
+        this(repo, roomPricingPolicy, addOnPricingPolicy, receiptPrinter, bookingIdGenerator, null, null);
+    }
+
+    // Default pricing, but each booking must first get a room from `inventory`.
+    // Many bookings go through this path, so ids come from a generator that
+    // never repeats (node 0).
+    public HostelFeeCalculator(FakeBookingRepo repo, RoomInventory inventory) {
+        this(repo, inventory, new TimeOrderedBookingIdGenerator(0));
+    }
+
+    public HostelFeeCalculator(FakeBookingRepo repo, RoomInventory inventory, BookingIdGenerator bookingIdGenerator) {
+        this(repo, new DefaultRoomPricingPolicy(), new DefaultAddOnPricingPolicy(), new ConsoleBookingReceiptPrinter(),
+                bookingIdGenerator, null, inventory);
+    }
+
+    // Table mode: one lookup per quote, repeated add-ons charged once.
+    public HostelFeeCalculator(FakeBookingRepo repo,
+                               BitmaskFeePolicy fees,
+                               BookingReceiptPrinter receiptPrinter,
+                               BookingIdGenerator bookingIdGenerator) {
+        this(repo, fees, fees, receiptPrinter, bookingIdGenerator, fees, null);
+    }
+
+    private HostelFeeCalculator(FakeBookingRepo repo,
+                                RoomPricingPolicy roomPricingPolicy,
+                                AddOnPricingPolicy addOnPricingPolicy,
+                                BookingReceiptPrinter receiptPrinter,
+                                BookingIdGenerator bookingIdGenerator,
+                                BitmaskFeePolicy feeTable,
+                                RoomInventory inventory) {
         this.repo = repo;
         this.roomPricingPolicy = roomPricingPolicy;
         this.addOnPricingPolicy = addOnPricingPolicy;
         this.receiptPrinter = receiptPrinter;
         this.bookingIdGenerator = bookingIdGenerator;
+        this.feeTable = feeTable;
+        this.inventory = inventory;
     }
 
     public void process(BookingRequest req) {
+        if (inventory == null) {
+            book(req, null);
+            return;
+        }
+        if (req.roomType < LegacyRoomTypes.SINGLE || req.roomType > LegacyRoomTypes.DELUXE)
+            throw new IllegalArgumentException("unknown room type: " + req.roomType);
+        // Fail fast, before any pricing or printing.
+        RoomInventory.Hold hold = inventory.tryHold(req.roomType);
+        if (hold == null) throw new IllegalStateException("no " + LegacyRoomTypes.nameOf(req.roomType) + " rooms available");
+        try {
+            book(req, hold);
+        } catch (RuntimeException | Error e) {
+            // No booking behind the hold: give the room back.
+            inventory.release(hold);
+            throw e;
+        }
+    }
+
+    private void book(BookingRequest req, RoomInventory.Hold hold) {
         Money monthly = calculateMonthly(req);
+        if (hold != null && !inventory.confirm(hold)) throw new IllegalStateException("room hold expired before confirmation");
         Money deposit = new Money(5000.00);
 
         receiptPrinter.print(req, monthly, deposit);
@@ -34,18 +88,26 @@ public class HostelFeeCalculator {
     }
 
     private Money calculateMonthly(BookingRequest req) {
-        Money roomBase = roomPricingPolicy.monthlyBaseFor(req.roomType);
-        Money addOnTotal = addOnPricingPolicy.totalFor(req.addOns);
-        return roomBase.plus(addOnTotal);
+        return Money.ofCents(monthlyCents(req));
+    }
+
+    // Monthly fee in cents; allocation-free with the default policies.
+    public long monthlyCents(BookingRequest req) {
+        if (feeTable != null) return feeTable.monthlyCents(req.roomType, BitmaskFeePolicy.maskOf(req.addOns));
+        return roomPricingPolicy.monthlyBaseCentsFor(req.roomType) + addOnPricingPolicy.totalCentsFor(req.addOns);
     }
 }
 
 interface RoomPricingPolicy {
     Money monthlyBaseFor(int roomType);
+
+    default long monthlyBaseCentsFor(int roomType) { return monthlyBaseFor(roomType).cents(); }
 }
 
 interface AddOnPricingPolicy {
     Money totalFor(List<AddOn> addOns);
+
+    default long totalCentsFor(List<AddOn> addOns) { return totalFor(addOns).cents(); }
 }
 
 interface BookingReceiptPrinter {
@@ -57,34 +119,49 @@ interface BookingIdGenerator {
 }
 
 class DefaultRoomPricingPolicy implements RoomPricingPolicy {
-    private final Map<Integer, Money> pricing = Map.of(
-            LegacyRoomTypes.SINGLE, new Money(14000.0),
-            LegacyRoomTypes.DOUBLE, new Money(15000.0),
-            LegacyRoomTypes.TRIPLE, new Money(12000.0),
-            LegacyRoomTypes.DELUXE, new Money(16000.0)
-    );
+    // Indexed by room type; anything outside SINGLE..DELUXE is priced as DELUXE.
+    private final long[] baseCents = {
+            0, Cents.of(14000.0), Cents.of(15000.0), Cents.of(12000.0), Cents.of(16000.0)
+    };
 
     @Override
     public Money monthlyBaseFor(int roomType) {
-        return pricing.getOrDefault(roomType, new Money(16000.0));
+        return Money.ofCents(monthlyBaseCentsFor(roomType));
+    }
+
+    @Override
+    public long monthlyBaseCentsFor(int roomType) {
+        return roomType >= LegacyRoomTypes.SINGLE && roomType <= LegacyRoomTypes.DELUXE
+                ? baseCents[roomType] : baseCents[LegacyRoomTypes.DELUXE];
     }
 }
 
 class DefaultAddOnPricingPolicy implements AddOnPricingPolicy {
-    private final Map<AddOn, Money> addOnRates = Map.of(
-            AddOn.MESS, new Money(1000.0),
-            AddOn.LAUNDRY, new Money(500.0),
-            AddOn.GYM, new Money(300.0)
-    );
+    private final long[] rateCents = ratesByOrdinal(new EnumMap<>(Map.of(
+            AddOn.MESS, Cents.of(1000.0),
+            AddOn.LAUNDRY, Cents.of(500.0),
+            AddOn.GYM, Cents.of(300.0)
+    )));
 
     @Override
     public Money totalFor(List<AddOn> addOns) {
-        Money total = new Money(0.0);
-        for (AddOn addOn : addOns) {
-            total = total.plus(addOnRates.getOrDefault(addOn, new Money(0.0)));
-        }
+        return Money.ofCents(totalCentsFor(addOns));
+    }
+
+    // Indexed loop: no iterator, no intermediate Money.
+    @Override
+    public long totalCentsFor(List<AddOn> addOns) {
+        long total = 0;
+        for (int i = 0, n = addOns.size(); i < n; i++) total += rateCents[addOns.get(i).ordinal()];
         return total;
     }
+
+    // One slot per AddOn constant; an add-on without a rate costs nothing.
+    private static long[] ratesByOrdinal(EnumMap<AddOn, Long> rates) {
+        long[] cents = new long[AddOn.values().length];
+        for (Map.Entry<AddOn, Long> e : rates.entrySet()) cents[e.getKey().ordinal()] = e.getValue();
+        return cents;
+    }
 }
 
 class ConsoleBookingReceiptPrinter implements BookingReceiptPrinter {
@@ -1,10 +1,22 @@
 public class Money {
     public final double amount;
-    public Money(double amount) { this.amount = round2(amount); }
+    private final long cents;
 
-    public Money plus(Money other) { return new Money(this.amount + other.amount); }
+    public Money(double amount) {
+        this(Cents.of(amount));
+    }
 
-    private static double round2(double x) { return Math.round(x * 100.0) / 100.0; }
+    // Exact: `amount` is derived from the cents, never the other way round.
+    private Money(long cents) {
+        this.cents = cents;
+        this.amount = Cents.toAmount(cents);
+    }
 
-    @Override public String toString() { return String.format("%.2f", amount); }
+    public static Money ofCents(long cents) { return new Money(cents); }
+
+    public long cents() { return cents; }
+
+    public Money plus(Money other) { return new Money(Math.addExact(this.cents, other.cents)); }
+
+    @Override public String toString() { return Cents.format(cents); }
 }
@@ -0,0 +1,242 @@
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// Room capacity per LegacyRoomTypes type, split into pools per block/floor.
+// - A hold takes one unit from a pool with a CAS decrement and fails fast
+//   (returns null) when every pool of the type is empty. Requests that don't
+//   name a block start at a random pool, so a burst spreads over several
+//   counters instead of hammering one.
+// - Holds expire after `holdTtlMillis` unless confirmed. All holds share one
+//   TTL, so each pool's queue of holds is in expiry order and a sweep only
+//   looks at its head. Sweeps run when a type looks sold out and from
+//   expireHolds(); one sweeper per pool at a time.
+// - A unit coming back (release or expiry) goes straight to the oldest
+//   waiter of that room type, if any, as a fresh hold.
+// Pools are set up with addRooms() before traffic starts.
+public class RoomInventory {
+    private static final int HELD = 0, CONFIRMED = 1, RELEASED = 2, EXPIRED = 3;
+
+    private final long holdTtlMillis;
+    private final LongSupplier clock;
+    private final AtomicLong holdIds = new AtomicLong();
+    private final Pool[][] pools = new Pool[LegacyRoomTypes.DELUXE + 1][0];
+    private final List<ConcurrentLinkedQueue<CompletableFuture<Hold>>> waiters = new ArrayList<>();
+
+    public RoomInventory(long holdTtlMillis) {
+        this(holdTtlMillis, System::currentTimeMillis);
+    }
+
+    public RoomInventory(long holdTtlMillis, LongSupplier clock) {
+        if (holdTtlMillis < 1) throw new IllegalArgumentException("holdTtlMillis must be positive");
+        this.holdTtlMillis = holdTtlMillis;
+        this.clock = clock;
+        for (int t = 0; t <= LegacyRoomTypes.DELUXE; t++) waiters.add(new ConcurrentLinkedQueue<>());
+    }
+
+    public synchronized void addRooms(int roomType, String block, int count) {
+        checkType(roomType);
+        if (count < 0) throw new IllegalArgumentException("count must not be negative");
+        for (Pool p : pools[roomType]) {
+            if (p.block.equals(block)) {
+                for (int i = 0; i < count; i++) returnUnit(p);
+                return;
+            }
+        }
+        Pool[] grown = Arrays.copyOf(pools[roomType], pools[roomType].length + 1);
+        grown[grown.length - 1] = new Pool(roomType, block, count);
+        pools[roomType] = grown;
+    }
+
+    // Any block; null when the type is sold out.
+    public Hold tryHold(int roomType) {
+        if (roomType < LegacyRoomTypes.SINGLE || roomType > LegacyRoomTypes.DELUXE) return null;
+        Pool[] ps = pools[roomType];
+        if (ps.length == 0) return null;
+        Hold h = takeFrom(ps);
+        if (h != null) return h;
+        // Looks sold out: reclaim expired holds and try once more.
+        long now = clock.getAsLong();
+        for (Pool p : ps) p.sweep(now);
+        return takeFrom(ps);
+    }
+
+    // One block only; null when it is full.
+    public Hold tryHold(int roomType, String block) {
+        if (roomType < LegacyRoomTypes.SINGLE || roomType > LegacyRoomTypes.DELUXE) return null;
+        for (Pool p : pools[roomType]) {
+            if (!p.block.equals(block)) continue;
+            if (p.tryTake()) return newHold(p);
+            p.sweep(clock.getAsLong());
+            return p.tryTake() ? newHold(p) : null;
+        }
+        return null;
+    }
+
+    // Completes immediately if a room is free, otherwise when one comes back.
+    // Cancelling the future gives up the place in line.
+    public CompletableFuture<Hold> holdOrWait(int roomType) {
+        checkType(roomType);
+        Hold h = tryHold(roomType);
+        if (h != null) return CompletableFuture.completedFuture(h);
+        CompletableFuture<Hold> f = new CompletableFuture<>();
+        waiters.get(roomType).add(f);
+        // A unit may have come back between the failed hold and enqueueing.
+        Hold late = tryHold(roomType);
+        if (late != null) {
+            if (f.complete(late)) waiters.get(roomType).remove(f);
+            else release(late);
+        }
+        return f;
+    }
+
+    // False if the hold already expired or was released.
+    public boolean confirm(Hold h) {
+        if (clock.getAsLong() >= h.expiresAtMillis) {
+            expire(h);
+            return false;
+        }
+        return h.state.compareAndSet(HELD, CONFIRMED);
+    }
+
+    // Gives the room back, whether it was held or already confirmed.
+    public boolean release(Hold h) {
+        if (h.state.compareAndSet(HELD, RELEASED) || h.state.compareAndSet(CONFIRMED, RELEASED)) {
+            returnUnit(h.pool);
+            return true;
+        }
+        return false;
+    }
+
+    // Reclaims every expired hold; for a periodic scheduler. Returns the count.
+    public int expireHolds() {
+        long now = clock.getAsLong();
+        int n = 0;
+        for (Pool[] ps : pools) for (Pool p : ps) n += p.sweep(now);
+        return n;
+    }
+
+    public int available(int roomType) {
+        checkType(roomType);
+        int n = 0;
+        for (Pool p : pools[roomType]) n += p.available.get();
+        return n;
+    }
+
+    public int available(int roomType, String block) {
+        checkType(roomType);
+        for (Pool p : pools[roomType]) if (p.block.equals(block)) return p.available.get();
+        return 0;
+    }
+
+    public int waiting(int roomType) {
+        checkType(roomType);
+        return waiters.get(roomType).size();
+    }
+
+    private Hold takeFrom(Pool[] ps) {
+        int start = ps.length == 1 ? 0 : ThreadLocalRandom.current().nextInt(ps.length);
+        for (int k = 0; k < ps.length; k++) {
+            Pool p = ps[(start + k) % ps.length];
+            if (p.tryTake()) return newHold(p);
+        }
+        return null;
+    }
+
+    private Hold newHold(Pool p) {
+        long now = clock.getAsLong();
+        Hold h = new Hold(holdIds.incrementAndGet(), p, now + holdTtlMillis);
+        p.holds.add(h);
+        // Now and then trim confirmed/released holds off the queue head.
+        if ((h.id & 63) == 0) p.sweep(now);
+        return h;
+    }
+
+    private boolean expire(Hold h) {
+        if (!h.state.compareAndSet(HELD, EXPIRED)) return false;
+        returnUnit(h.pool);
+        return true;
+    }
+
+    // Hands a freed unit to the oldest live waiter, else back to the pool.
+    private void returnUnit(Pool p) {
+        ConcurrentLinkedQueue<CompletableFuture<Hold>> line = waiters.get(p.roomType);
+        CompletableFuture<Hold> w;
+        while ((w = line.poll()) != null) {
+            if (w.isDone()) continue;
+            Hold h = newHold(p);
+            if (w.complete(h)) return;
+            // Cancelled in between: the unit was never handed out.
+            h.state.set(RELEASED);
+        }
+        p.available.incrementAndGet();
+    }
+
+    private static void checkType(int roomType) {
+        if (roomType < LegacyRoomTypes.SINGLE || roomType > LegacyRoomTypes.DELUXE)
+            throw new IllegalArgumentException("unknown room type: " + roomType);
+    }
+
+    public static class Hold {
+        public final long id;
+        public final int roomType;
+        public final String block;
+        public final long expiresAtMillis;
+        private final Pool pool;
+        private final AtomicInteger state = new AtomicInteger(HELD);
+
+        private Hold(long id, Pool pool, long expiresAtMillis) {
+            this.id = id;
+            this.roomType = pool.roomType;
+            this.block = pool.block;
+            this.expiresAtMillis = expiresAtMillis;
+            this.pool = pool;
+        }
+
+        public boolean isConfirmed() { return state.get() == CONFIRMED; }
+    }
+
+    private class Pool {
+        final int roomType;
+        final String block;
+        final AtomicInteger available;
+        final ConcurrentLinkedQueue<Hold> holds = new ConcurrentLinkedQueue<>();
+        final AtomicBoolean sweeping = new AtomicBoolean();
+
+        Pool(int roomType, String block, int capacity) {
+            this.roomType = roomType;
+            this.block = block;
+            this.available = new AtomicInteger(capacity);
+        }
+
+        boolean tryTake() {
+            for (int n = available.get(); n > 0; n = available.get()) {
+                if (available.compareAndSet(n, n - 1)) return true;
+            }
+            return false;
+        }
+
+        // Drops settled holds from the head and expires overdue ones. Only
+        // the sweeper removes from `holds`, so peek-then-poll is safe.
+        int sweep(long now) {
+            if (!sweeping.compareAndSet(false, true)) return 0;
+            int expired = 0;
+            try {
+                Hold h;
+                while ((h = holds.peek()) != null) {
+                    if (h.state.get() == HELD && h.expiresAtMillis > now) break;
+                    holds.poll();
+                    if (expire(h)) expired++;
+                }
+            } finally {
+                sweeping.set(false);
+            }
+            return expired;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+// Unique, roughly time-ordered booking ids without locks or CAS loops:
+//
+//   H-<epoch millis, 11 hex><node id, 3 hex>-<lane, 8 hex>-<sequence, 16 hex>
+//
+// Each thread claims its own lane once (the only shared write), then counts
+// its sequence within the current millisecond. (lane, millis, sequence) never
+// repeats within a generator, and the node id separates generators on
+// different machines. If the clock steps back, a lane keeps its last
+// millisecond and just keeps counting. Ids from one thread sort in issue
+// order (every field is fixed width, so string order is numeric order);
+// across threads they sort by millisecond.
+public class TimeOrderedBookingIdGenerator implements BookingIdGenerator {
+    private static final int MAX_NODE = 0xFFF;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final int nodeId;
+    private final LongSupplier clock;
+    private final AtomicInteger lanes = new AtomicInteger();
+    private final ThreadLocal<Lane> lane = ThreadLocal.withInitial(() -> new Lane(lanes.getAndIncrement()));
+
+    public TimeOrderedBookingIdGenerator(int nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    public TimeOrderedBookingIdGenerator(int nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE) throw new IllegalArgumentException("nodeId must be 0.." + MAX_NODE);
+        this.nodeId = nodeId;
+        this.clock = clock;
+    }
+
+    // For tests: the clock is frozen at `seedMillis`, so a single-threaded run
+    // always yields the same ids.
+    public static TimeOrderedBookingIdGenerator seeded(long seedMillis, int nodeId) {
+        return new TimeOrderedBookingIdGenerator(nodeId, () -> seedMillis);
+    }
+
+    @Override
+    public String nextBookingId() {
+        Lane l = lane.get();
+        long now = clock.getAsLong();
+        if (now > l.lastMillis) {
+            l.lastMillis = now;
+            l.sequence = 0;
+        } else {
+            l.sequence++;
+        }
+        char[] b = l.buf;
+        b[0] = 'H';
+        b[1] = '-';
+        int p = putHex(b, 2, l.lastMillis, 11);
+        p = putHex(b, p, nodeId, 3);
+        b[p++] = '-';
+        p = putHex(b, p, l.id, 8);
+        b[p++] = '-';
+        p = putHex(b, p, l.sequence, 16);
+        return new String(b, 0, p);
+    }
+
+    private static int putHex(char[] b, int at, long v, int width) {
+        for (int i = at + width - 1; i >= at; i--) {
+            b[i] = HEX[(int) (v & 0xF)];
+            v >>>= 4;
+        }
+        return at + width;
+    }
+
+    private static class Lane {
+        final int id;
+        final char[] buf = new char[2 + 11 + 3 + 1 + 8 + 1 + 16];
+        long lastMillis = Long.MIN_VALUE;
+        long sequence;
+
+        Lane(int id) { this.id = id; }
+    }
+}
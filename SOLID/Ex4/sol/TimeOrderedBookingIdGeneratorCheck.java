@@ -0,0 +1,50 @@
+import java.util.*;
+
+// Concurrency check for TimeOrderedBookingIdGenerator: several threads draw
+// ids at once; every id must be unique and each thread's ids must sort in
+// the order they were issued. Also checks the seeded mode is repeatable.
+// Run: java TimeOrderedBookingIdGeneratorCheck [threads] [idsPerThread]
+public class TimeOrderedBookingIdGeneratorCheck {
+    public static void main(String[] args) throws InterruptedException {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int perThread = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+
+        TimeOrderedBookingIdGenerator a = TimeOrderedBookingIdGenerator.seeded(1_700_000_000_000L, 1);
+        TimeOrderedBookingIdGenerator b = TimeOrderedBookingIdGenerator.seeded(1_700_000_000_000L, 1);
+        String prev = null;
+        for (int i = 0; i < 100_000; i++) {
+            String id = a.nextBookingId();
+            check(id.equals(b.nextBookingId()), "seeded mode not repeatable at " + i);
+            check(prev == null || prev.compareTo(id) < 0, "out of order: " + prev + " >= " + id);
+            prev = id;
+        }
+
+        TimeOrderedBookingIdGenerator gen = new TimeOrderedBookingIdGenerator(7);
+        String[][] ids = new String[threads][perThread];
+        Thread[] workers = new Thread[threads];
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            String[] out = ids[t];
+            workers[t] = new Thread(() -> {
+                for (int i = 0; i < out.length; i++) out[i] = gen.nextBookingId();
+            });
+            workers[t].start();
+        }
+        for (Thread w : workers) w.join();
+        long elapsed = System.nanoTime() - start;
+
+        Set<String> seen = new HashSet<>(threads * perThread * 2);
+        for (String[] out : ids) {
+            for (int i = 0; i < out.length; i++) {
+                check(seen.add(out[i]), "duplicate id: " + out[i]);
+                check(i == 0 || out[i - 1].compareTo(out[i]) < 0, "out of order: " + (i == 0 ? "" : out[i - 1]) + " >= " + out[i]);
+            }
+        }
+        System.out.printf("OK: %d unique ids from %d threads, %.1fM ids/s%n",
+                seen.size(), threads, seen.size() / (elapsed / 1e3));
+    }
+
+    private static void check(boolean ok, String msg) {
+        if (!ok) throw new IllegalStateException(msg);
+    }
+}